@@ -1,10 +1,56 @@
 import engine.DatabaseEngine;
+import exception.DatabaseException;
+import server.DatabaseServer;
+import server.ServerConfig;
 import ui.CommandLineInterface;
 
+import java.io.IOException;
+
 public class SimpleDatabase {
     public static void main(String[] args) {
         DatabaseEngine engine = new DatabaseEngine();
+        if (args.length > 0 && args[0].equals("--server")) {
+            serve(engine, args);
+            return;
+        }
+
         CommandLineInterface cli = new CommandLineInterface(engine);
         cli.start();
+        shutdown(engine);
+    }
+
+    private static void serve(DatabaseEngine engine, String[] args) {
+        ServerConfig config = ServerConfig.fromSystemProperties();
+        if (args.length > 1) {
+            config.setPort(Integer.parseInt(args[1]));
+        }
+        DatabaseServer server = new DatabaseServer(engine, config);
+        try {
+            server.bind();
+        } catch (IOException e) {
+            System.out.println("ERROR: Could not listen on port " + config.getPort() + ": " + e.getMessage());
+            shutdown(engine);
+            return;
+        }
+        System.out.println("Simple Database Server listening on port " + server.getPort());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            shutdown(engine);
+        }));
+        try {
+            server.serve();
+        } catch (IOException e) {
+            System.out.println("FATAL I/O ERROR: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static void shutdown(DatabaseEngine engine) {
+        try {
+            engine.shutdown();
+        } catch (DatabaseException e) {
+            System.out.println("ERROR: " + e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package benchmark;
+
+public class Benchmark {
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    private final String name;
+    private final Operation setUp;
+    private final Operation operation;
+
+    public Benchmark(String name, Operation setUp, Operation operation) {
+        this.name = name;
+        this.setUp = setUp;
+        this.operation = operation;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setUp() throws Exception {
+        if (setUp != null) {
+            setUp.run();
+        }
+    }
+
+    public Object run() throws Exception {
+        return operation.run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,121 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BenchmarkRunner {
+    private final long warmupMillis;
+    private final long iterationMillis;
+    private final int iterations;
+    private final String filter;
+    private final List<Benchmark> benchmarks = new ArrayList<>();
+    private final List<Runnable> cleanups = new ArrayList<>();
+    private volatile int sink;
+
+    public BenchmarkRunner(long warmupMillis, long iterationMillis, int iterations, String filter) {
+        this.warmupMillis = warmupMillis;
+        this.iterationMillis = iterationMillis;
+        this.iterations = iterations;
+        this.filter = filter;
+    }
+
+    public void add(String name, Benchmark.Operation operation) {
+        add(name, null, operation);
+    }
+
+    public void add(String name, Benchmark.Operation setUp, Benchmark.Operation operation) {
+        if (filter == null || name.contains(filter)) {
+            benchmarks.add(new Benchmark(name, setUp, operation));
+        }
+    }
+
+    public void onFinish(Runnable cleanup) {
+        cleanups.add(cleanup);
+    }
+
+    public void runAll() throws Exception {
+        System.out.printf("%-48s %14s %12s %12s%n", "Benchmark", "ops/s", "error", "ns/op");
+        try {
+            for (Benchmark benchmark : benchmarks) {
+                run(benchmark);
+            }
+        } finally {
+            for (Runnable cleanup : cleanups) {
+                cleanup.run();
+            }
+        }
+    }
+
+    private void run(Benchmark benchmark) throws Exception {
+        benchmark.setUp();
+        measure(benchmark, warmupMillis);
+
+        double[] throughput = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            throughput[i] = measure(benchmark, iterationMillis);
+        }
+
+        double mean = 0;
+        for (double value : throughput) {
+            mean += value;
+        }
+        mean /= iterations;
+        double variance = 0;
+        for (double value : throughput) {
+            variance += (value - mean) * (value - mean);
+        }
+        double error = iterations > 1 ? Math.sqrt(variance / (iterations - 1)) : 0;
+
+        System.out.printf("%-48s %14.1f %12.1f %12.1f%n", benchmark.getName(), mean, error, 1e9 / mean);
+    }
+
+    private double measure(Benchmark benchmark, long millis) throws Exception {
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long start = System.nanoTime();
+        long ops = 0;
+        long now;
+        do {
+            consume(benchmark.run());
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        return ops * 1e9 / (now - start);
+    }
+
+    private void consume(Object result) {
+        if (result != null) {
+            sink += System.identityHashCode(result);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String filter = null;
+        List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--rows") && i + 1 < args.length) {
+                for (String size : args[++i].split(",")) {
+                    sizes.add(Integer.parseInt(size.trim()));
+                }
+            } else {
+                filter = args[i];
+            }
+        }
+        if (sizes.isEmpty()) {
+            sizes.add(10_000);
+        }
+
+        BenchmarkRunner runner = new BenchmarkRunner(
+                Long.getLong("bench.warmup.ms", 2000),
+                Long.getLong("bench.iteration.ms", 1000),
+                Integer.getInteger("bench.iterations", 5),
+                filter);
+
+        ParserBenchmarks.register(runner);
+        PredicateBenchmarks.register(runner);
+        for (int rows : sizes) {
+            StorageBenchmarks.register(runner, rows);
+            EngineBenchmarks.register(runner, rows);
+        }
+        runner.runAll();
+    }
+}
\ No newline at end of file
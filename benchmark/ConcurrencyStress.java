@@ -0,0 +1,229 @@
+package benchmark;
+
+import engine.DatabaseEngine;
+import engine.EngineConfig;
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+import model.Row;
+import parser.PreparedStatement;
+import parser.SqlParser;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ConcurrencyStress {
+    private static final String UNIFORM = "stress_uniform";
+    private static final String LEDGER = "stress_ledger";
+    private static final int UNIFORM_ROWS = 500;
+    private static final int MAX_REPORTED = 20;
+
+    private interface Worker {
+        void step(Session session, Random random, double id) throws DatabaseException;
+    }
+
+    private final DatabaseEngine engine;
+    private final SqlParser parser = new SqlParser();
+    private final AtomicLong committedInserts = new AtomicLong();
+    private final AtomicLong operations = new AtomicLong();
+    private final AtomicLong lockTimeouts = new AtomicLong();
+    private final List<String> violations = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private ConcurrencyStress(DatabaseEngine engine) {
+        this.engine = engine;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = 8;
+        int seconds = 10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            } else if (args[i].equals("--seconds")) {
+                seconds = Integer.parseInt(args[i + 1]);
+            }
+        }
+
+        cleanUp();
+        EngineConfig config = EngineConfig.fromSystemProperties();
+        config.setLockTimeoutMillis(200);
+        ConcurrencyStress stress = new ConcurrencyStress(new DatabaseEngine(config));
+        boolean passed;
+        try {
+            passed = stress.run(threads, seconds);
+        } finally {
+            cleanUp();
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private boolean run(int threads, int seconds) throws Exception {
+        Session setup = new Session(engine);
+        List<Row> rows = new ArrayList<>();
+        for (int i = 0; i < UNIFORM_ROWS; i++) {
+            Row row = new Row();
+            row.put("v", 0.0);
+            rows.add(row);
+        }
+        engine.executeInsert(null, UNIFORM, rows);
+
+        PreparedStatement setAll = parser.prepare("UPDATE " + UNIFORM + " SET v = ?");
+        PreparedStatement readAll = parser.prepare("SELECT v FROM " + UNIFORM);
+        PreparedStatement insert = parser.prepare("INSERT INTO " + LEDGER + " (worker, n) VALUES (?, ?), (?, ?)");
+
+        Worker updater = (session, random, id) -> {
+            session.begin();
+            setAll.bind((double) random.nextInt(1000)).execute(session);
+            if (random.nextInt(4) == 0) {
+                session.rollback();
+            } else {
+                session.commit();
+            }
+        };
+        Worker reader = (session, random, id) -> {
+            List<Row> result = readAll.bind().execute(session).getRows();
+            if (result.size() != UNIFORM_ROWS) {
+                violation("reader saw " + result.size() + " rows instead of " + UNIFORM_ROWS);
+                return;
+            }
+            Object first = result.get(0).get("v");
+            for (Row row : result) {
+                if (!first.equals(row.get("v"))) {
+                    violation("reader saw a half-applied update: " + first + " and " + row.get("v"));
+                    return;
+                }
+            }
+        };
+        Worker inserter = (session, random, id) -> {
+            session.begin();
+            insert.bind(id, (double) random.nextInt(), id, (double) random.nextInt()).execute(session);
+            if (random.nextInt(3) == 0) {
+                session.rollback();
+            } else {
+                session.commit();
+                committedInserts.addAndGet(2);
+            }
+        };
+        // Takes both tables in opposite orders to exercise lock timeouts instead of deadlocking forever.
+        Worker crossForward = crossTable(setAll, insert, true);
+        Worker crossBackward = crossTable(setAll, insert, false);
+
+        Worker[] kinds = {updater, reader, reader, inserter, crossForward, crossBackward};
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            Worker worker = kinds[i % kinds.length];
+            int id = i;
+            workers.add(new Thread(() -> loop(worker, id), "stress-" + i));
+        }
+        long start = System.nanoTime();
+        for (Thread thread : workers) {
+            thread.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        running = false;
+        for (Thread thread : workers) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        verify(setup, "live");
+        engine.shutdown();
+        verify(new Session(new DatabaseEngine(EngineConfig.fromSystemProperties())), "reopened");
+
+        System.out.printf("%d threads, %.1fs: %d operations (%.0f ops/s), %d committed inserts, %d lock timeouts%n",
+                threads, elapsed, operations.get(), operations.get() / elapsed, committedInserts.get(), lockTimeouts.get());
+        synchronized (violations) {
+            for (String violation : violations.subList(0, Math.min(violations.size(), MAX_REPORTED))) {
+                System.out.println("VIOLATION: " + violation);
+            }
+            System.out.println(violations.isEmpty() ? "PASSED" : "FAILED");
+            return violations.isEmpty();
+        }
+    }
+
+    private Worker crossTable(PreparedStatement setAll, PreparedStatement insert, boolean forward) {
+        return (session, random, id) -> {
+            session.begin();
+            if (forward) {
+                setAll.bind((double) random.nextInt(1000)).execute(session);
+                insert.bind(id, 1.0, id, 2.0).execute(session);
+            } else {
+                insert.bind(id, 1.0, id, 2.0).execute(session);
+                setAll.bind((double) random.nextInt(1000)).execute(session);
+            }
+            session.commit();
+            committedInserts.addAndGet(2);
+        };
+    }
+
+    private void loop(Worker worker, int id) {
+        Session session = new Session(engine);
+        Random random = new Random(id);
+        while (running) {
+            try {
+                worker.step(session, random, id);
+                operations.incrementAndGet();
+            } catch (DatabaseException e) {
+                if (e.getMessage().startsWith("Timed out")) {
+                    lockTimeouts.incrementAndGet();
+                } else {
+                    violation(Thread.currentThread().getName() + " failed: " + e.getMessage());
+                }
+                try {
+                    session.close();
+                } catch (DatabaseException closeFailure) {
+                    violation(closeFailure.getMessage());
+                }
+            } catch (RuntimeException e) {
+                violation(Thread.currentThread().getName() + " crashed: " + e);
+                return;
+            }
+        }
+        try {
+            session.close();
+        } catch (DatabaseException e) {
+            violation(e.getMessage());
+        }
+    }
+
+    private void verify(Session session, String stage) throws DatabaseException {
+        Result ledger = parser.parse("SELECT id FROM " + LEDGER).execute(session);
+        if (ledger.getRows().size() != committedInserts.get()) {
+            violation(stage + " ledger has " + ledger.getRows().size() + " rows but " + committedInserts.get() + " were committed");
+        }
+        Set<Object> ids = new HashSet<>();
+        for (Row row : ledger.getRows()) {
+            if (!ids.add(row.get("id"))) {
+                violation(stage + " ledger has duplicate id " + row.get("id"));
+            }
+        }
+        List<Row> uniform = parser.parse("SELECT v FROM " + UNIFORM).execute(session).getRows();
+        Set<Object> values = new HashSet<>();
+        for (Row row : uniform) {
+            values.add(row.get("v"));
+        }
+        if (uniform.size() != UNIFORM_ROWS || values.size() != 1) {
+            violation(stage + " uniform table has " + uniform.size() + " rows with values " + values);
+        }
+    }
+
+    private void violation(String message) {
+        synchronized (violations) {
+            violations.add(message);
+        }
+    }
+
+    private static void cleanUp() {
+        for (String table : new String[] {UNIFORM, LEDGER}) {
+            new File(table + ".json").delete();
+            new File(table + ".log").delete();
+            new File(table + ".tbl").delete();
+        }
+    }
+}
\ No newline at end of file
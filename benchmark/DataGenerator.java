@@ -0,0 +1,77 @@
+package benchmark;
+
+import model.Row;
+import model.Table;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class DataGenerator {
+    private static final String[] NAMES = {
+        "Szymon", "Karol", "Grzegorz", "Andrzej", "Kacper", "Krzysztof", "Maciej", "Anna", "Zofia", "Julia"
+    };
+    private static final String[] SURNAMES = {
+        "Styczen", "Luty", "Marzec", "Kwiecien", "Maj", "Czerwiec",
+        "Lipiec", "Sierpien", "Wrzesien", "Pazdziernik", "Listopad", "Grudzien"
+    };
+
+    private final Random random;
+
+    public DataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public Row nextRow() {
+        Row row = new Row();
+        row.put("name", NAMES[random.nextInt(NAMES.length)]);
+        row.put("surname", SURNAMES[random.nextInt(SURNAMES.length)]);
+        row.put("grade", nextGrade());
+        return row;
+    }
+
+    public Table table(String tableName, int rows) {
+        Table table = new Table(tableName);
+        for (int i = 0; i < rows; i++) {
+            table.insert(nextRow());
+        }
+        return table;
+    }
+
+    public void writeJson(String tableName, int rows) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tableName + ".json"), StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("{\n");
+            out.write("  \"name\": \"" + tableName + "\",\n");
+            out.write("  \"columns\": [\"id\", \"name\", \"surname\", \"grade\"],\n");
+            out.write("  \"rows\": [\n");
+            for (int i = 1; i <= rows; i++) {
+                Double grade = nextGrade();
+                out.write("    {\"id\":" + (double) i
+                        + ",\"name\":\"" + NAMES[random.nextInt(NAMES.length)]
+                        + "\",\"surname\":\"" + SURNAMES[random.nextInt(SURNAMES.length)]
+                        + "\",\"grade\":" + grade + "}");
+                out.write(i < rows ? ",\n" : "\n");
+            }
+            out.write("  ]\n");
+            out.write("}");
+        }
+    }
+
+    private Double nextGrade() {
+        int grade = random.nextInt(5);
+        return grade == 0 ? null : (double) grade + 1;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.out.println("Usage: java benchmark.DataGenerator <table> <rows>");
+            return;
+        }
+        new DataGenerator(42).writeJson(args[0], Integer.parseInt(args[1]));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,82 @@
+package benchmark;
+
+import engine.DatabaseEngine;
+import engine.EngineConfig;
+import engine.Session;
+import exception.DatabaseException;
+import parser.PreparedStatement;
+import parser.SqlParser;
+
+import java.io.File;
+import java.util.Random;
+
+public class EngineBenchmarks {
+    private EngineBenchmarks() {
+    }
+
+    public static void register(BenchmarkRunner runner, int rows) throws DatabaseException {
+        String tableName = "bench_engine_" + rows;
+        DatabaseEngine engine = new DatabaseEngine(new EngineConfig());
+        Session session = new Session(engine);
+        SqlParser parser = new SqlParser();
+        Random random = new Random(42);
+        int[] nextDelete = {rows};
+        boolean[] ready = {false};
+
+        Benchmark.Operation setUp = () -> {
+            if (!ready[0]) {
+                new DataGenerator(42).writeJson(tableName, rows);
+                parser.parse("SELECT * FROM " + tableName + " WHERE id = 1").execute(session);
+                ready[0] = true;
+            }
+            return null;
+        };
+
+        PreparedStatement insert = parser.prepare("INSERT INTO " + tableName + " (name, surname, grade) VALUES (?, ?, ?)");
+        PreparedStatement selectById = parser.prepare("SELECT * FROM " + tableName + " WHERE id = ?");
+        PreparedStatement selectRange = parser.prepare("SELECT name, surname FROM " + tableName + " WHERE grade >= ?");
+        PreparedStatement selectPage = parser.prepare("SELECT name, surname FROM " + tableName + " WHERE grade >= ? LIMIT 20 OFFSET 100");
+        PreparedStatement topByName = parser.prepare("SELECT name, surname FROM " + tableName + " WHERE grade >= ? ORDER BY name DESC LIMIT 20");
+        PreparedStatement groupByGrade = parser.prepare("SELECT grade, COUNT(*), AVG(grade) FROM " + tableName + " WHERE grade >= ? GROUP BY grade");
+        PreparedStatement selfJoin = parser.prepare("SELECT a.name, b.surname FROM " + tableName + " a JOIN " + tableName
+                + " b ON a.id = b.id WHERE a.grade >= ?");
+        PreparedStatement updateById = parser.prepare("UPDATE " + tableName + " SET grade = ? WHERE id = ?");
+        PreparedStatement deleteById = parser.prepare("DELETE FROM " + tableName + " WHERE id = ?");
+
+        runner.add("engine.insert." + rows, setUp,
+                () -> insert.bind("Anna", "Maj", 4.0).execute(session));
+        runner.add("engine.insert.tx100." + rows, setUp, () -> {
+            session.begin();
+            for (int i = 0; i < 100; i++) {
+                insert.bind("Anna", "Maj", 4.0).execute(session);
+            }
+            return session.commit();
+        });
+        runner.add("engine.select.point." + rows, setUp,
+                () -> selectById.bind(1 + random.nextInt(rows)).execute(session).getRows());
+        runner.add("engine.select.scan." + rows, setUp,
+                () -> selectRange.bind(5.0).execute(session).getRows());
+        runner.add("engine.select.limit." + rows, setUp,
+                () -> selectPage.bind(5.0).execute(session).getRows());
+        runner.add("engine.select.top." + rows, setUp,
+                () -> topByName.bind(1.0).execute(session).getRows());
+        runner.add("engine.aggregate.group." + rows, setUp,
+                () -> groupByGrade.bind(1.0).execute(session).getRows());
+        runner.add("engine.join.hash." + rows, setUp,
+                () -> selfJoin.bind(5.0).execute(session).getRows());
+        runner.add("engine.update.point." + rows, setUp,
+                () -> updateById.bind(3.0, 1 + random.nextInt(rows)).execute(session));
+        runner.add("engine.delete.point." + rows, setUp,
+                () -> deleteById.bind(Math.max(nextDelete[0]--, 1)).execute(session));
+
+        runner.onFinish(() -> {
+            try {
+                engine.shutdown();
+            } catch (DatabaseException e) {
+                System.out.println("ERROR: " + e.getMessage());
+            }
+            new File(tableName + ".json").delete();
+            new File(tableName + ".log").delete();
+        });
+    }
+}
\ No newline at end of file
@@ -0,0 +1,37 @@
+package benchmark;
+
+import parser.PreparedStatement;
+import parser.SqlParser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ParserBenchmarks {
+    private ParserBenchmarks() {
+    }
+
+    public static void register(BenchmarkRunner runner) throws Exception {
+        Map<String, String> statements = new LinkedHashMap<>();
+        statements.put("insert", "INSERT INTO Students (name, surname, grade) VALUES ('Anna', 'Maj', 4)");
+        statements.put("select", "SELECT * FROM Students");
+        statements.put("select_where", "SELECT name, surname FROM Students WHERE grade >= 4");
+        statements.put("update", "UPDATE Students SET grade = 5 WHERE id = 42");
+        statements.put("delete", "DELETE FROM Students WHERE surname = 'Luty'");
+        statements.put("select_complex", "SELECT name, surname FROM Students WHERE (grade >= 4 OR surname = 'Maj, Anna') AND NOT id = 7 "
+                + "ORDER BY surname DESC, name LIMIT 20 OFFSET 40");
+        statements.put("aggregate", "SELECT grade, COUNT(*), AVG(grade) FROM Students WHERE grade > 2 GROUP BY grade ORDER BY COUNT(*) DESC");
+        statements.put("join", "SELECT s.name, c.title FROM Students s LEFT JOIN Courses c ON s.course = c.id WHERE c.year >= 2020");
+        statements.put("create_index", "CREATE ORDERED INDEX ON Students (grade)");
+
+        SqlParser uncached = new SqlParser(0);
+        SqlParser cached = new SqlParser();
+        for (Map.Entry<String, String> statement : statements.entrySet()) {
+            String sql = statement.getValue();
+            runner.add("parser.parse." + statement.getKey(), () -> uncached.parse(sql));
+            runner.add("parser.parse." + statement.getKey() + ".cached", () -> cached.parse(sql));
+        }
+
+        PreparedStatement insert = cached.prepare("INSERT INTO Students (name, surname, grade) VALUES (?, ?, ?)");
+        runner.add("parser.bind.insert", () -> insert.bind("Anna", "Maj", 4.0));
+    }
+}
\ No newline at end of file
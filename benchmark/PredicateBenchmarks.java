@@ -0,0 +1,53 @@
+package benchmark;
+
+import model.Row;
+import parser.AndPredicate;
+import parser.Comparison;
+import parser.NotPredicate;
+import parser.Operator;
+import parser.OrPredicate;
+import parser.WhereClause;
+
+import java.util.List;
+
+public class PredicateBenchmarks {
+    private static final int ROWS = 1024;
+    private static final String[] OPERATORS = {"=", "!=", ">", "<", ">=", "<="};
+    private static final String[] OPERATOR_NAMES = {"eq", "ne", "gt", "lt", "ge", "le"};
+
+    private PredicateBenchmarks() {
+    }
+
+    public static void register(BenchmarkRunner runner) {
+        DataGenerator generator = new DataGenerator(42);
+        Row[] rows = new Row[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            rows[i] = generator.nextRow();
+        }
+
+        for (int i = 0; i < OPERATORS.length; i++) {
+            WhereClause number = new WhereClause("grade", OPERATORS[i], 4.0);
+            WhereClause string = new WhereClause("surname", OPERATORS[i], "Maj");
+            runner.add("predicate.number." + OPERATOR_NAMES[i] + ".x" + ROWS, () -> count(number, rows));
+            runner.add("predicate.string." + OPERATOR_NAMES[i] + ".x" + ROWS, () -> count(string, rows));
+        }
+
+        WhereClause compound = new WhereClause(new AndPredicate(List.of(
+                Comparison.of("surname", Operator.NE, "Maj"),
+                new OrPredicate(List.of(
+                        Comparison.of("name", Operator.EQ, "Karol"),
+                        new NotPredicate(Comparison.of("grade", Operator.LT, 3.0)))),
+                Comparison.of("grade", Operator.EQ, 5.0))));
+        runner.add("predicate.compound.x" + ROWS, () -> count(compound, rows));
+    }
+
+    private static Integer count(WhereClause where, Row[] rows) {
+        int matches = 0;
+        for (Row row : rows) {
+            if (where.matches(row)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+}
\ No newline at end of file
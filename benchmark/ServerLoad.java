@@ -0,0 +1,174 @@
+package benchmark;
+
+import engine.DatabaseEngine;
+import engine.EngineConfig;
+import server.DatabaseServer;
+import server.ServerConfig;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ServerLoad {
+    private static final String TABLE = "server_load";
+
+    public static void main(String[] args) throws Exception {
+        int idle = 1000;
+        int clients = 8;
+        int requests = 2000;
+        int pipeline = 16;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--idle": idle = Integer.parseInt(args[i + 1]); break;
+                case "--clients": clients = Integer.parseInt(args[i + 1]); break;
+                case "--requests": requests = Integer.parseInt(args[i + 1]); break;
+                case "--pipeline": pipeline = Integer.parseInt(args[i + 1]); break;
+                default: break;
+            }
+        }
+
+        cleanUp();
+        DatabaseEngine engine = new DatabaseEngine(EngineConfig.fromSystemProperties());
+        ServerConfig config = ServerConfig.fromSystemProperties();
+        config.setPort(0);
+        config.setMaxConnections(idle + clients);
+        DatabaseServer server = new DatabaseServer(engine, config);
+        server.bind();
+        Thread acceptor = Thread.ofPlatform().name("acceptor").start(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                System.out.println("FATAL I/O ERROR: " + e.getMessage());
+            }
+        });
+
+        boolean passed = false;
+        List<Socket> idleSockets = new ArrayList<>();
+        try {
+            long before = usedMemory();
+            for (int i = 0; i < idle; i++) {
+                idleSockets.add(new Socket(InetAddress.getLoopbackAddress(), server.getPort()));
+            }
+            while (server.getConnectionCount() < idle) {
+                Thread.sleep(10);
+            }
+            long after = usedMemory();
+            System.out.printf("%d idle connections: ~%d bytes of heap each%n", idle, Math.max(0, after - before) / Math.max(1, idle));
+
+            passed = runClients(server.getPort(), clients, requests, pipeline);
+        } finally {
+            for (Socket socket : idleSockets) {
+                socket.close();
+            }
+            server.stop();
+            acceptor.join();
+            engine.shutdown();
+            cleanUp();
+        }
+        System.out.println(passed ? "PASSED" : "FAILED");
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static boolean runClients(int port, int clients, int requests, int pipeline) throws Exception {
+        AtomicLong failures = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            threads.add(Thread.ofVirtual().start(() -> {
+                try {
+                    runClient(port, client, requests, pipeline, failures);
+                } catch (IOException e) {
+                    System.out.println("Client " + client + " failed: " + e.getMessage());
+                    failures.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        long total = (long) clients * requests;
+        System.out.printf("%d clients x %d requests (pipeline %d): %.0f requests/s%n", clients, requests, pipeline, total / elapsed);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            String count = exchange(socket, "SELECT id FROM " + TABLE + " WHERE worker = 0");
+            // Every client inserts on even requests and selects on odd ones.
+            String expected = "OK " + (requests + 1) / 2 + " rows in set";
+            if (!count.equals(expected)) {
+                System.out.println("Expected '" + expected + "' but got '" + count + "'");
+                failures.incrementAndGet();
+            }
+        }
+        return failures.get() == 0;
+    }
+
+    private static void runClient(int port, int client, int requests, int pipeline, AtomicLong failures) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            int sent = 0;
+            while (sent < requests) {
+                int batch = Math.min(pipeline, requests - sent);
+                StringBuilder requestLines = new StringBuilder();
+                for (int i = 0; i < batch; i++) {
+                    int n = sent + i;
+                    if (n % 2 == 0) {
+                        requestLines.append("INSERT INTO " + TABLE + " (worker, n) VALUES (" + client + ", " + n + ")\n");
+                    } else {
+                        requestLines.append("SELECT n FROM " + TABLE + " WHERE worker = " + client + " AND n = " + (n - 1) + "\n");
+                    }
+                }
+                out.write(requestLines.toString().getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                for (int i = 0; i < batch; i++) {
+                    String status = readStatus(in);
+                    if (status == null || !status.startsWith("OK ")) {
+                        System.out.println("Client " + client + " got: " + status);
+                        failures.incrementAndGet();
+                        return;
+                    }
+                }
+                sent += batch;
+            }
+        }
+    }
+
+    private static String exchange(Socket socket, String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write((request + "\n").getBytes(StandardCharsets.UTF_8));
+        out.flush();
+        return readStatus(new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)));
+    }
+
+    private static String readStatus(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null && line.startsWith("ROW ")) {
+            // skip result rows
+        }
+        return line;
+    }
+
+    private static long usedMemory() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static void cleanUp() {
+        new File(TABLE + ".json").delete();
+        new File(TABLE + ".log").delete();
+        new File(TABLE + ".tbl").delete();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package benchmark;
+
+import model.Table;
+import model.TableLayout;
+import storage.BinaryStorage;
+import storage.JsonStorage;
+
+import java.io.File;
+
+public class StorageBenchmarks {
+    private StorageBenchmarks() {
+    }
+
+    public static void register(BenchmarkRunner runner, int rows) {
+        String tableName = "bench_storage_" + rows;
+        JsonStorage storage = new JsonStorage();
+        BinaryStorage binary = new BinaryStorage(TableLayout.ROW, storage);
+        Table[] table = new Table[1];
+
+        Benchmark.Operation setUp = () -> {
+            if (table[0] == null) {
+                table[0] = new DataGenerator(42).table(tableName, rows);
+                storage.saveTable(table[0]);
+                binary.saveTable(table[0]);
+            }
+            return null;
+        };
+
+        runner.add("storage.save." + rows, setUp, () -> {
+            storage.saveTable(table[0]);
+            return table[0];
+        });
+        runner.add("storage.load." + rows, setUp, () -> storage.loadTable(tableName));
+        runner.add("storage.binary.save." + rows, setUp, () -> {
+            binary.saveTable(table[0]);
+            return table[0];
+        });
+        runner.add("storage.binary.load." + rows, setUp, () -> binary.loadTable(tableName));
+        runner.onFinish(() -> {
+            new File(tableName + ".json").delete();
+            new File(tableName + ".tbl").delete();
+        });
+    }
+}
\ No newline at end of file
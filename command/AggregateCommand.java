@@ -0,0 +1,55 @@
+package command;
+
+import engine.Plan;
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+import parser.Aggregate;
+import parser.SortKey;
+import parser.WhereClause;
+
+import java.util.List;
+
+public class AggregateCommand implements Command {
+    private final String tableName;
+    private final List<String> columns;
+    private final List<Aggregate> aggregates;
+    private final List<String> groupBy;
+    private final WhereClause where;
+    private final List<SortKey> orderBy;
+    private final long limit;
+    private final long offset;
+
+    // Columns name the result columns in order: aggregate labels and GROUP BY columns.
+    public AggregateCommand(String tableName, List<String> columns, List<Aggregate> aggregates, List<String> groupBy,
+                            WhereClause where, List<SortKey> orderBy, long limit, long offset) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.aggregates = aggregates;
+        this.groupBy = groupBy;
+        this.where = where;
+        this.orderBy = orderBy;
+        this.limit = limit;
+        this.offset = offset;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeAggregate(tableName, columns, aggregates, groupBy, where, orderBy, limit, offset);
+    }
+
+    @Override
+    public Result explain(Session session, Plan plan) throws DatabaseException {
+        return session.getEngine().executeAggregate(tableName, columns, aggregates, groupBy, where, orderBy, limit, offset, plan);
+    }
+
+    @Override
+    public Command bind(Object[] parameters) {
+        return where == null ? this : new AggregateCommand(tableName, columns, aggregates, groupBy, where.bind(parameters), orderBy, limit, offset);
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package command;
+
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+
+public class AnalyzeCommand implements Command {
+    private final String tableName;
+
+    // A null table name analyzes every loaded table.
+    public AnalyzeCommand(String tableName) {
+        this.tableName = tableName;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeAnalyze(tableName);
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
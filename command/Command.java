@@ -1,10 +1,20 @@
 package command;
 
-import engine.DatabaseEngine;
+import engine.Plan;
+import engine.Session;
 import engine.Result;
 import exception.DatabaseException;
 
 public interface Command {
-    Result execute(DatabaseEngine engine) throws DatabaseException;
+    Result execute(Session session) throws DatabaseException;
     boolean shouldExit();
+
+    default Command bind(Object[] parameters) {
+        return this;
+    }
+
+    // Runs the statement while recording its plan into the given one.
+    default Result explain(Session session, Plan plan) throws DatabaseException {
+        throw new DatabaseException("EXPLAIN supports SELECT statements only.");
+    }
 }
\ No newline at end of file
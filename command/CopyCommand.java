@@ -0,0 +1,25 @@
+package command;
+
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+
+public class CopyCommand implements Command {
+    private final String tableName;
+    private final String fileName;
+
+    public CopyCommand(String tableName, String fileName) {
+        this.tableName = tableName;
+        this.fileName = fileName;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeCopy(session.getTransaction(), tableName, fileName);
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,28 @@
+package command;
+
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+import index.IndexType;
+
+public class CreateIndexCommand implements Command {
+    private final String tableName;
+    private final String column;
+    private final IndexType type;
+
+    public CreateIndexCommand(String tableName, String column, IndexType type) {
+        this.tableName = tableName;
+        this.column = column;
+        this.type = type;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeCreateIndex(session.getTransaction(), tableName, column, type);
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
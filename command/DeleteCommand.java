@@ -1,7 +1,7 @@
 package command;
 
-import engine.DatabaseEngine;
 import engine.Result;
+import engine.Session;
 import exception.DatabaseException;
 import parser.WhereClause;
 
@@ -15,8 +15,13 @@ public class DeleteCommand implements Command {
     }
 
     @Override
-    public Result execute(DatabaseEngine engine) throws DatabaseException {
-        return engine.executeDelete(tableName, where);
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeDelete(session.getTransaction(), tableName, where);
+    }
+
+    @Override
+    public Command bind(Object[] parameters) {
+        return where == null ? this : new DeleteCommand(tableName, where.bind(parameters));
     }
 
     @Override
@@ -1,11 +1,11 @@
 package command;
 
-import engine.DatabaseEngine;
 import engine.Result;
+import engine.Session;
 
 public class ExitCommand implements Command {
     @Override
-    public Result execute(DatabaseEngine engine) {
+    public Result execute(Session session) {
         return new Result("Bye", true);
     }
 
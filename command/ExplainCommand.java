@@ -0,0 +1,34 @@
+package command;
+
+import engine.Plan;
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+
+// Runs the query to the end and returns its plan instead of its rows, with the estimated and actual row count of
+// every step.
+public class ExplainCommand implements Command {
+    private final Command query;
+
+    public ExplainCommand(Command query) {
+        this.query = query;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        Plan plan = new Plan();
+        try (Result result = query.explain(session, plan)) {
+            return new Result(plan.measure(result));
+        }
+    }
+
+    @Override
+    public Command bind(Object[] parameters) {
+        return new ExplainCommand(query.bind(parameters));
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
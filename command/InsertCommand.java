@@ -1,22 +1,50 @@
 package command;
 
-import engine.DatabaseEngine;
 import engine.Result;
+import engine.Session;
 import exception.DatabaseException;
 import model.Row;
+import parser.Parameter;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class InsertCommand implements Command {
     private final String tableName;
-    private final Row row;
+    private final List<Row> rows;
 
     public InsertCommand(String tableName, Row row) {
+        this(tableName, List.of(row));
+    }
+
+    public InsertCommand(String tableName, List<Row> rows) {
         this.tableName = tableName;
-        this.row = row;
+        this.rows = rows;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        if (rows.size() == 1) {
+            return session.getEngine().executeInsert(session.getTransaction(), tableName, new Row(rows.get(0).getData()));
+        }
+        List<Row> copies = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            copies.add(new Row(row.getData()));
+        }
+        return session.getEngine().executeInsert(session.getTransaction(), tableName, copies);
     }
 
     @Override
-    public Result execute(DatabaseEngine engine) throws DatabaseException {
-        return engine.executeInsert(tableName, row);
+    public Command bind(Object[] parameters) {
+        List<Row> boundRows = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Row bound = new Row();
+            for (String column : row.getColumns()) {
+                bound.put(column, Parameter.resolve(row.get(column), parameters));
+            }
+            boundRows.add(bound);
+        }
+        return new InsertCommand(tableName, boundRows);
     }
 
     @Override
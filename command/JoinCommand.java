@@ -0,0 +1,49 @@
+package command;
+
+import engine.Plan;
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+import parser.Join;
+import parser.SortKey;
+import parser.WhereClause;
+
+import java.util.List;
+
+public class JoinCommand implements Command {
+    private final Join join;
+    private final List<String> columns;
+    private final WhereClause where;
+    private final List<SortKey> orderBy;
+    private final long limit;
+    private final long offset;
+
+    public JoinCommand(Join join, List<String> columns, WhereClause where, List<SortKey> orderBy, long limit, long offset) {
+        this.join = join;
+        this.columns = columns;
+        this.where = where;
+        this.orderBy = orderBy;
+        this.limit = limit;
+        this.offset = offset;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeJoin(join, columns, where, orderBy, limit, offset);
+    }
+
+    @Override
+    public Result explain(Session session, Plan plan) throws DatabaseException {
+        return session.getEngine().executeJoin(join, columns, where, orderBy, limit, offset, plan);
+    }
+
+    @Override
+    public Command bind(Object[] parameters) {
+        return where == null ? this : new JoinCommand(join, columns, where.bind(parameters), orderBy, limit, offset);
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package command;
+
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+
+public class RollbackCommand implements Command {
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.rollback();
+    }
+
+    @Override
+    public boolean shouldExit() {
+        return false;
+    }
+}
\ No newline at end of file
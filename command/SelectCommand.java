@@ -1,26 +1,50 @@
 package command;
 
-import engine.DatabaseEngine;
+import engine.Plan;
 import engine.Result;
+import engine.Session;
 import exception.DatabaseException;
+import parser.SortKey;
 import parser.WhereClause;
 
+import java.util.Collections;
 import java.util.List;
 
 public class SelectCommand implements Command {
     private final String tableName;
     private final List<String> columns;
     private final WhereClause where;
+    private final List<SortKey> orderBy;
+    private final long limit;
+    private final long offset;
 
     public SelectCommand(String tableName, List<String> columns, WhereClause where) {
+        this(tableName, columns, where, Collections.emptyList(), -1, 0);
+    }
+
+    // A negative limit means no limit.
+    public SelectCommand(String tableName, List<String> columns, WhereClause where, List<SortKey> orderBy, long limit, long offset) {
         this.tableName = tableName;
         this.columns = columns;
         this.where = where;
+        this.orderBy = orderBy;
+        this.limit = limit;
+        this.offset = offset;
+    }
+
+    @Override
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeSelect(tableName, columns, where, orderBy, limit, offset);
+    }
+
+    @Override
+    public Result explain(Session session, Plan plan) throws DatabaseException {
+        return session.getEngine().executeSelect(tableName, columns, where, orderBy, limit, offset, plan);
     }
 
     @Override
-    public Result execute(DatabaseEngine engine) throws DatabaseException {
-        return engine.executeSelect(tableName, columns, where);
+    public Command bind(Object[] parameters) {
+        return where == null ? this : new SelectCommand(tableName, columns, where.bind(parameters), orderBy, limit, offset);
     }
 
     @Override
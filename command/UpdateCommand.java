@@ -1,10 +1,12 @@
 package command;
 
-import engine.DatabaseEngine;
 import engine.Result;
+import engine.Session;
 import exception.DatabaseException;
+import parser.Parameter;
 import parser.WhereClause;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 public class UpdateCommand implements Command {
@@ -19,8 +21,17 @@ public class UpdateCommand implements Command {
     }
 
     @Override
-    public Result execute(DatabaseEngine engine) throws DatabaseException {
-        return engine.executeUpdate(tableName, setClauses, where);
+    public Result execute(Session session) throws DatabaseException {
+        return session.getEngine().executeUpdate(session.getTransaction(), tableName, setClauses, where);
+    }
+
+    @Override
+    public Command bind(Object[] parameters) {
+        Map<String, Object> bound = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : setClauses.entrySet()) {
+            bound.put(entry.getKey(), Parameter.resolve(entry.getValue(), parameters));
+        }
+        return new UpdateCommand(tableName, bound, where == null ? null : where.bind(parameters));
     }
 
     @Override
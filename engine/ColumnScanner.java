@@ -0,0 +1,147 @@
+package engine;
+
+import model.ColumnStore;
+import model.ColumnVector;
+import model.NumericColumn;
+import model.Row;
+import model.StringColumn;
+import model.Table;
+import parser.AndPredicate;
+import parser.Comparison;
+import parser.NotPredicate;
+import parser.NumberComparison;
+import parser.OrPredicate;
+import parser.RowPredicate;
+import parser.WhereClause;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.DoublePredicate;
+
+class ColumnScanner {
+    private ColumnScanner() {
+    }
+
+    static List<Row> scan(Table table, WhereClause where) {
+        ColumnStore store = table.getColumnStore();
+        List<Row> rows = table.getStoredRows();
+        BitSet selected = evaluate(store, where.getPredicate());
+        List<Row> matches = new ArrayList<>(selected.cardinality());
+        for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+            Row row = rows.get(i);
+            if (!row.isDeleted()) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+
+    // Positions of the live rows matching where, or of every live row if where is null.
+    static BitSet select(Table table, WhereClause where) {
+        ColumnStore store = table.getColumnStore();
+        BitSet selected;
+        if (where == null) {
+            selected = new BitSet(store.size());
+            selected.set(0, store.size());
+        } else {
+            selected = evaluate(store, where.getPredicate());
+        }
+        if (table.getDeadRowCount() > 0) {
+            List<Row> rows = table.getStoredRows();
+            for (int i = selected.nextSetBit(0); i >= 0; i = selected.nextSetBit(i + 1)) {
+                if (rows.get(i).isDeleted()) {
+                    selected.clear(i);
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static BitSet evaluate(ColumnStore store, RowPredicate predicate) {
+        if (predicate instanceof Comparison) {
+            return compare(store, (Comparison) predicate);
+        }
+        if (predicate instanceof NotPredicate) {
+            BitSet bits = evaluate(store, ((NotPredicate) predicate).getChild());
+            bits.flip(0, store.size());
+            return bits;
+        }
+        if (predicate instanceof AndPredicate) {
+            BitSet bits = null;
+            for (RowPredicate child : ((AndPredicate) predicate).getChildren()) {
+                BitSet next = evaluate(store, child);
+                if (bits == null) {
+                    bits = next;
+                } else {
+                    bits.and(next);
+                }
+                if (bits.isEmpty()) {
+                    break;
+                }
+            }
+            return bits;
+        }
+        if (predicate instanceof OrPredicate) {
+            BitSet bits = new BitSet(store.size());
+            for (RowPredicate child : ((OrPredicate) predicate).getChildren()) {
+                bits.or(evaluate(store, child));
+            }
+            return bits;
+        }
+        throw new IllegalArgumentException("Unsupported predicate: " + predicate);
+    }
+
+    private static BitSet compare(ColumnStore store, Comparison comparison) {
+        int size = store.size();
+        BitSet matches = new BitSet(size);
+        ColumnVector vector = store.getColumn(comparison.getColumn());
+        if (vector == null) {
+            return matches;
+        }
+
+        if (vector instanceof NumericColumn && comparison instanceof NumberComparison) {
+            NumericColumn numeric = (NumericColumn) vector;
+            double[] values = numeric.getValues();
+            DoublePredicate predicate = numericPredicate(comparison);
+            for (int i = 0; i < size; i++) {
+                if (!numeric.isNull(i) && predicate.test(values[i])) {
+                    matches.set(i);
+                }
+            }
+        } else if (vector instanceof StringColumn) {
+            StringColumn strings = (StringColumn) vector;
+            List<String> dictionary = strings.getDictionary();
+            boolean[] matchingCodes = new boolean[dictionary.size()];
+            for (int code = 0; code < matchingCodes.length; code++) {
+                matchingCodes[code] = comparison.testValue(dictionary.get(code));
+            }
+            int[] codes = strings.getCodes();
+            for (int i = 0; i < size; i++) {
+                int code = codes[i];
+                if (code >= 0 && matchingCodes[code]) {
+                    matches.set(i);
+                }
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                if (comparison.testValue(vector.get(i))) {
+                    matches.set(i);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static DoublePredicate numericPredicate(Comparison comparison) {
+        double literal = ((NumberComparison) comparison).getLiteral();
+        switch (comparison.getOperator()) {
+            case EQ: return v -> Double.compare(v, literal) == 0;
+            case NE: return v -> Double.compare(v, literal) != 0;
+            case GT: return v -> v > literal;
+            case LT: return v -> v < literal;
+            case GE: return v -> v >= literal;
+            default: return v -> v <= literal;
+        }
+    }
+}
\ No newline at end of file
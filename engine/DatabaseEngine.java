@@ -1,119 +1,1043 @@
 package engine;
 
 import exception.DatabaseException;
+import index.IndexType;
+import model.ColumnStatistics;
+import model.ColumnStore;
 import model.Row;
 import model.Table;
+import model.TableStatistics;
+import parser.Aggregate;
+import parser.Join;
+import parser.JoinCondition;
+import parser.JoinType;
+import parser.SortKey;
 import parser.WhereClause;
+import storage.BinaryStorage;
 import storage.JsonStorage;
+import storage.RowImporter;
+import storage.StorageEngine;
+import storage.WriteAheadLog;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 
 public class DatabaseEngine {
-    private final JsonStorage storage;
-    private Table currentTable;
+    // Larger ORDER BY ... LIMIT queries sort the whole input instead of keeping a heap.
+    private static final int MAX_TOP_N = 1_000_000;
+    private static final String METRICS_BEAN_NAME = "SimpleDatabase:type=Metrics";
+
+    private final EngineConfig config;
+    private final StorageEngine storage;
+    private final WriteAheadLog log;
+    private final TableCatalog catalog;
+    private final RowImporter importer;
+    private final ParallelScanner parallelScanner;
+    private final ScheduledExecutorService compactor;
+    private final TableFlusher flusher;
+    private final Metrics metrics;
+    private final ObjectName metricsBean;
 
     public DatabaseEngine() {
-        this.storage = new JsonStorage();
+        this(EngineConfig.fromSystemProperties());
+    }
+
+    public DatabaseEngine(EngineConfig config) {
+        this.config = config;
+        // JSON stays the row codec for the log and for imports whichever format holds the tables.
+        JsonStorage json = new JsonStorage(config.getTableLayout());
+        this.storage = config.getStorageFormat() == EngineConfig.StorageFormat.BINARY
+                ? new BinaryStorage(config.getTableLayout(), json)
+                : json;
+        this.log = new WriteAheadLog(json, config.getDurability() == EngineConfig.Durability.SYNC);
+        this.metrics = new Metrics(json.getIoCounters());
+        this.metricsBean = registerMetrics(metrics);
+        this.importer = new RowImporter(json, Paths.get(config.getImportDirectory()));
+        this.catalog = new TableCatalog(config.getCacheMemoryBytes(), this::openTable, this::checkpoint);
+        this.parallelScanner = config.isParallelScan() ? new ParallelScanner(config.getParallelism()) : null;
+        this.compactor = config.getCompactionIntervalMillis() > 0 ? startCompactor(config.getCompactionIntervalMillis()) : null;
+        // Snapshots under SYNC are written by the statements themselves; everything else needs the flusher.
+        this.flusher = isLogging() || config.getDurability() != EngineConfig.Durability.SYNC
+                ? new TableFlusher(config.getFlushIntervalMillis(), this::flushTables)
+                : null;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
     }
 
-    public Result executeInsert(String tableName, Row row) throws DatabaseException {
-        loadTableContext(tableName);
-        currentTable.insert(row);
-        storage.saveTable(currentTable);
+    public Result executeInsert(Transaction tx, String tableName, Row row) throws DatabaseException {
+        Table table = lockForWrite(tx, tableName);
+        try {
+            Row stored = table.insert(row);
+            if (tx != null) {
+                tx.addUndo(() -> table.deleteRows(Collections.singletonList(stored)));
+            }
+            write(tx, table, isLogging() ? log.insertRecord(table, row) : null);
+        } finally {
+            unlockAfterWrite(tx, table);
+        }
         return new Result("Query OK, 1 row affected", true);
     }
 
+    public Result executeInsert(Transaction tx, String tableName, List<Row> rows) throws DatabaseException {
+        Table table = lockForWrite(tx, tableName);
+        try {
+            return insertRows(tx, table, rows);
+        } finally {
+            unlockAfterWrite(tx, table);
+        }
+    }
+
+    public Result executeCopy(Transaction tx, String tableName, String fileName) throws DatabaseException {
+        return executeInsert(tx, tableName, importer.read(fileName));
+    }
+
     public Result executeSelect(String tableName, List<String> columns, WhereClause where) throws DatabaseException {
-        loadTableContext(tableName);
-        
-        List<Row> filteredRows = currentTable.getRows().stream()
-            .filter(row -> where == null || where.matches(row))
-            .collect(Collectors.toList());
+        return executeSelect(tableName, columns, where, Collections.emptyList(), -1, 0);
+    }
+
+    // The result holds the table's read lock until it is drained or closed, so callers must do one or the other.
+    public Result executeSelect(String tableName, List<String> columns, WhereClause where, List<SortKey> orderBy,
+                                long limit, long offset) throws DatabaseException {
+        return executeSelect(tableName, columns, where, orderBy, limit, offset, null);
+    }
+
+    // With a plan, records the operators the query runs through for EXPLAIN.
+    public Result executeSelect(String tableName, List<String> columns, WhereClause where, List<SortKey> orderBy,
+                                long limit, long offset, Plan plan) throws DatabaseException {
+        Table table = catalog.acquire(tableName);
+        Lock readLock = table.getLock().readLock();
+        try {
+            lock(readLock, table);
+        } catch (DatabaseException e) {
+            catalog.release(table);
+            throw e;
+        }
+        Runnable release = () -> {
+            readLock.unlock();
+            catalog.release(table);
+        };
+        try {
+            return select(table, columns, where, orderBy, limit, offset, release, plan);
+        } catch (DatabaseException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    // Aggregation consumes its whole input, so unlike a SELECT the result is materialized before the lock is released.
+    public Result executeAggregate(String tableName, List<String> columns, List<Aggregate> aggregates, List<String> groupBy,
+                                   WhereClause where, List<SortKey> orderBy, long limit, long offset) throws DatabaseException {
+        return executeAggregate(tableName, columns, aggregates, groupBy, where, orderBy, limit, offset, null);
+    }
+
+    public Result executeAggregate(String tableName, List<String> columns, List<Aggregate> aggregates, List<String> groupBy,
+                                   WhereClause where, List<SortKey> orderBy, long limit, long offset, Plan plan) throws DatabaseException {
+        Table table = catalog.acquire(tableName);
+        try {
+            Lock readLock = table.getLock().readLock();
+            lock(readLock, table);
+            List<Row> rows;
+            try {
+                rows = aggregate(table, columns, aggregates, groupBy, where, plan);
+            } finally {
+                readLock.unlock();
+            }
+            if (!orderBy.isEmpty()) {
+                rows.sort(new RowComparator(orderBy));
+                if (plan != null) {
+                    Plan.Node sorted = plan.node("Sort by " + describe(orderBy), plan.getRoot().getEstimatedRows(), plan.getRoot());
+                    sorted.setActual(rows.size());
+                    plan.setRoot(sorted);
+                }
+            }
+            int from = (int) Math.min(offset, rows.size());
+            int to = limit < 0 ? rows.size() : (int) Math.min(from + limit, rows.size());
+            if (plan != null) {
+                plan.setRoot(resultNode(plan, plan.getRoot(), limit, offset));
+            }
+            return new Result(from == 0 && to == rows.size() ? rows : new ArrayList<>(rows.subList(from, to)));
+        } finally {
+            catalog.release(table);
+        }
+    }
+
+    // Like a SELECT, the result holds read locks on both tables until it is drained or closed.
+    public Result executeJoin(Join join, List<String> columns, WhereClause where, List<SortKey> orderBy,
+                              long limit, long offset) throws DatabaseException {
+        return executeJoin(join, columns, where, orderBy, limit, offset, null);
+    }
+
+    public Result executeJoin(Join join, List<String> columns, WhereClause where, List<SortKey> orderBy,
+                              long limit, long offset, Plan plan) throws DatabaseException {
+        if (join.getLeftAlias().equals(join.getRightAlias())) {
+            throw new DatabaseException("Both sides of a join are called " + join.getLeftAlias() + "; give one of them an alias.");
+        }
+        Table left = catalog.acquire(join.getLeftTable());
+        Table right;
+        try {
+            right = catalog.acquire(join.getRightTable());
+        } catch (DatabaseException e) {
+            catalog.release(left);
+            throw e;
+        }
+        // Locks are taken in name order; a self-join takes its table's read lock twice.
+        Table first = left.getName().compareTo(right.getName()) <= 0 ? left : right;
+        Table second = first == left ? right : left;
+        Lock firstLock = first.getLock().readLock();
+        Lock secondLock = second.getLock().readLock();
+        try {
+            lock(firstLock, first);
+            try {
+                lock(secondLock, second);
+            } catch (DatabaseException e) {
+                firstLock.unlock();
+                throw e;
+            }
+        } catch (DatabaseException e) {
+            catalog.release(right);
+            catalog.release(left);
+            throw e;
+        }
+        Runnable release = () -> {
+            secondLock.unlock();
+            firstLock.unlock();
+            catalog.release(right);
+            catalog.release(left);
+        };
+        try {
+            return join(left, right, join, columns, where, orderBy, limit, offset, release, plan);
+        } catch (DatabaseException | RuntimeException e) {
+            release.run();
+            throw e;
+        }
+    }
+
+    public Result executeDelete(Transaction tx, String tableName, WhereClause where) throws DatabaseException {
+        Table table = lockForWrite(tx, tableName);
+        try {
+            return delete(tx, table, where);
+        } finally {
+            unlockAfterWrite(tx, table);
+        }
+    }
+
+    public Result executeUpdate(Transaction tx, String tableName, Map<String, Object> setClauses, WhereClause where) throws DatabaseException {
+        Table table = lockForWrite(tx, tableName);
+        try {
+            return update(tx, table, setClauses, where);
+        } finally {
+            unlockAfterWrite(tx, table);
+        }
+    }
+
+    public Result executeCreateIndex(Transaction tx, String tableName, String column, IndexType type) throws DatabaseException {
+        if (tx != null) {
+            throw new DatabaseException("CREATE INDEX is not allowed inside a transaction.");
+        }
+        Table table = lockForWrite(null, tableName);
+        try {
+            if (!table.createIndex(column, type)) {
+                throw new DatabaseException(type + " index on " + tableName + "(" + column + ") already exists.");
+            }
+            write(null, table, isLogging() ? log.createIndexRecord(table, column, type) : null);
+        } finally {
+            unlockAfterWrite(null, table);
+        }
+        return new Result("Query OK, index created on " + tableName + "(" + column + ")", true);
+    }
+
+    // Collects statistics for the planner and returns them, one row per column. Without a table name, analyzes every
+    // table currently loaded.
+    public Result executeAnalyze(String tableName) throws DatabaseException {
+        List<Table> tables = new ArrayList<>();
+        if (tableName != null) {
+            tables.add(catalog.acquire(tableName));
+        } else {
+            for (Table table : catalog.getResidentTables()) {
+                catalog.pin(table);
+                tables.add(table);
+            }
+        }
+        List<Row> rows = new ArrayList<>();
+        try {
+            for (Table table : tables) {
+                Lock readLock = table.getLock().readLock();
+                lock(readLock, table);
+                TableStatistics statistics;
+                try {
+                    statistics = table.analyze();
+                } finally {
+                    readLock.unlock();
+                }
+                for (ColumnStatistics column : statistics.getColumns().values()) {
+                    Row row = new Row();
+                    row.put("table", table.getName());
+                    row.put("column", column.getColumn());
+                    row.put("rows", (double) statistics.getRowCount());
+                    row.put("nulls", (double) column.getNullCount());
+                    row.put("distinct", (double) column.getDistinctCount());
+                    row.put("min", column.getMin());
+                    row.put("max", column.getMax());
+                    row.put("buckets", (double) column.getBucketCount());
+                    rows.add(row);
+                }
+            }
+        } finally {
+            for (Table table : tables) {
+                catalog.release(table);
+            }
+        }
+        return new Result(rows);
+    }
+
+    // Persists the transaction's changes, then releases the locks and pins taken by its writes.
+    public void commit(Transaction tx) throws DatabaseException {
+        try {
+            if (isLogging() && !tx.getRecords().isEmpty()) {
+                log.append(tx.getRecords());
+                log.sync();
+            }
+        } catch (DatabaseException e) {
+            rollback(tx);
+            throw e;
+        }
+        DatabaseException failure = null;
+        for (Table table : tx.getTables()) {
+            try {
+                persist(table);
+            } catch (DatabaseException e) {
+                failure = e;
+            }
+            table.getLock().writeLock().unlock();
+            catalog.unpin(table);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    public void rollback(Transaction tx) {
+        tx.undo();
+        for (Table table : tx.getTables()) {
+            table.getLock().writeLock().unlock();
+            catalog.unpin(table);
+        }
+    }
+
+    public void shutdown() throws DatabaseException {
+        if (parallelScanner != null) {
+            parallelScanner.shutdown();
+        }
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(config.getLockTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (flusher != null) {
+            flusher.shutdown(config.getLockTimeoutMillis());
+        }
+        catalog.flushAll();
+        if (isLogging() && config.getDurability() != EngineConfig.Durability.OS) {
+            log.force();
+        }
+        log.close();
+        if (metricsBean != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsBean);
+            } catch (JMException e) {
+                // already gone
+            }
+        }
+    }
+
+    // Only one engine per JVM is visible over JMX; later ones keep their metrics for SHOW STATS only.
+    private static ObjectName registerMetrics(Metrics metrics) {
+        try {
+            ObjectName name = new ObjectName(METRICS_BEAN_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+            return name;
+        } catch (JMException | SecurityException e) {
+            return null;
+        }
+    }
 
+    private Result insertRows(Transaction tx, Table table, List<Row> rows) throws DatabaseException {
+        int first = table.getStoredRows().size();
+        table.insertAll(rows);
+        if (tx != null) {
+            List<Row> stored = new ArrayList<>(table.getStoredRows().subList(first, table.getStoredRows().size()));
+            tx.addUndo(() -> table.deleteRows(stored));
+            if (isLogging()) {
+                for (Row row : rows) {
+                    tx.addRecord(log.insertRecord(table, row));
+                }
+            }
+        } else if (isLogging() && rows.size() >= config.getCheckpointInterval()) {
+            // A batch this large would trigger a checkpoint anyway, so skip logging every row first.
+            checkpoint(table);
+        } else {
+            if (isLogging()) {
+                List<WriteAheadLog.Record> records = new ArrayList<>(rows.size());
+                for (Row row : rows) {
+                    records.add(log.insertRecord(table, row));
+                }
+                log.append(records);
+                log.sync();
+            }
+            persist(table);
+        }
+        return new Result("Query OK, " + rows.size() + " rows affected", true);
+    }
+
+    private Result select(Table table, List<String> columns, WhereClause where, List<SortKey> orderBy, long limit, long offset,
+                          Runnable release, Plan plan) throws DatabaseException {
         List<String> finalColumnsOrder = new ArrayList<>();
 
         if (columns.size() == 1 && columns.get(0).equals("*")) {
-            Set<String> allColumns = new LinkedHashSet<>();
+            List<String> tableColumns = table.getColumns();
+            if (!tableColumns.contains("id") && tableColumns.contains("ID")) {
+                finalColumnsOrder.add("id");
+            }
+            finalColumnsOrder.addAll(tableColumns);
+        } else {
+            finalColumnsOrder.addAll(columns);
+        }
 
-            boolean hasId = currentTable.getRows().stream()
-                    .anyMatch(r -> r.getColumns().contains("id") || r.getColumns().contains("ID"));
-            
-            if (hasId) {
-                allColumns.add("id");
+        // Narrow the source with an index or column scan where possible; otherwise the cursor filters as it reads.
+        List<Row> rows = table.getStoredRows();
+        boolean live = table.getDeadRowCount() == 0;
+        WhereClause residual = where;
+        String access = null;
+        double estimate = table.getRowCount();
+        // Rows read from the table, or -1 while the cursor has yet to find out.
+        long scanned = -1;
+        if (where != null) {
+            Planner.AccessPath path = lookupIndex(table, where);
+            if (path != null) {
+                rows = path.getRows();
+                scanned = rows.size();
+                residual = where.isSingleComparison() ? null : where;
+                access = plan == null ? null : path.describe(table);
+                estimate = path.getEstimatedRows();
+            } else if (table.getColumnStore() != null) {
+                rows = ColumnScanner.scan(table, where);
+                scanned = table.getStoredRows().size();
+                residual = null;
+                access = "Column scan on " + table.getName() + ": " + where;
+                estimate = Planner.estimateRows(table, where);
+            } else if ((limit < 0 || !orderBy.isEmpty()) && isParallel(rows)) {
+                rows = parallelScanner.filter(rows, where);
+                scanned = table.getStoredRows().size();
+                residual = null;
+                access = "Parallel scan on " + table.getName() + ": " + where;
+                estimate = Planner.estimateRows(table, where);
             }
+            live |= rows != table.getStoredRows();
+        }
+        if (scanned < 0 && (plan != null || !orderBy.isEmpty())) {
+            scanned = rows.size();
+        }
 
-            for (Row row : currentTable.getRows()) {
-                allColumns.addAll(row.getColumns());
+        if (plan != null) {
+            metrics.rowsScanned(scanned);
+            Plan.Node node = plan.node(access != null ? access : "Full scan on " + table.getName(), estimate);
+            Iterator<Row> source = node.count(rows.iterator());
+            if (residual != null) {
+                node = plan.node("Filter: " + residual, Planner.estimateRows(table, where), node);
+                source = node.count(new RowCursor(source, residual, null, 0, -1));
             }
-            
-            finalColumnsOrder.addAll(allColumns);
+            return output(source, null, finalColumnsOrder, orderBy, limit, offset, release, plan, node);
+        }
+        if (!orderBy.isEmpty()) {
+            metrics.rowsScanned(scanned);
+            return sort(rows.iterator(), residual, finalColumnsOrder, orderBy, limit, offset, release, null, null);
+        }
+        if (residual == null && live) {
+            int from = (int) Math.min(offset, rows.size());
+            int to = limit < 0 ? rows.size() : (int) Math.min(from + limit, rows.size());
+            metrics.rowsScanned(scanned < 0 ? to - from : scanned);
+            return new Result(new RowCursor(rows.subList(from, to).iterator(), null, finalColumnsOrder, 0, -1), release);
+        }
+        RowCursor cursor = new RowCursor(rows.iterator(), residual, finalColumnsOrder, offset, limit);
+        if (scanned >= 0) {
+            metrics.rowsScanned(scanned);
+            return new Result(cursor, release);
+        }
+        // A streamed scan may stop at its LIMIT, so it counts what it read once the result is done.
+        Result result = new Result(cursor, release);
+        result.onClose(() -> metrics.rowsScanned(cursor.getExamined()));
+        return result;
+    }
+
+    private Result join(Table left, Table right, Join join, List<String> columns, WhereClause where, List<SortKey> orderBy,
+                        long limit, long offset, Runnable release, Plan plan) throws DatabaseException {
+        JoinedRow.Schema schema = new JoinedRow.Schema(join.getLeftAlias(), left.getColumns(), join.getRightAlias(), right.getColumns());
+        List<String> finalColumnsOrder = columns.size() == 1 && columns.get(0).equals("*") ? schema.getColumns() : columns;
+
+        // Equalities become hash keys; any other ON conjunct is checked on each candidate pair.
+        List<String> leftKeys = new ArrayList<>();
+        List<String> rightKeys = new ArrayList<>();
+        List<JoinCondition> residual = new ArrayList<>();
+        for (JoinCondition condition : join.getConditions()) {
+            JoinCondition oriented = orient(condition, join);
+            if (oriented.isEquality()) {
+                leftKeys.add(oriented.getLeftColumn());
+                rightKeys.add(oriented.getRightColumn());
+            } else {
+                residual.add(oriented);
+            }
+        }
+
+        boolean leftOuter = join.getType() == JoinType.LEFT;
+        // Build the hash table on whichever side has fewer live rows.
+        boolean buildLeft = left.getRowCount() < right.getRowCount();
+        Iterator<Row> joined;
+        metrics.rowsScanned(left.getStoredRows().size() + right.getStoredRows().size());
+        if (leftKeys.isEmpty()) {
+            joined = new NestedLoopJoin(schema, left.getStoredRows(), right.getStoredRows(), residual, leftOuter);
         } else {
-            finalColumnsOrder.addAll(columns);
+            joined = new HashJoin(schema, left.getStoredRows(), right.getStoredRows(), leftKeys.toArray(new String[0]),
+                    rightKeys.toArray(new String[0]), residual, leftOuter, buildLeft);
         }
 
-        List<Row> projectedRows = new ArrayList<>();
+        if (plan != null) {
+            Plan.Node node = joinNode(plan, left, right, join, leftKeys, rightKeys, residual, buildLeft);
+            joined = node.count(joined);
+            if (where != null) {
+                node = plan.node("Filter: " + where, node.getEstimatedRows() * where.getPredicate().selectivity(), node);
+                joined = node.count(new RowCursor(joined, where, null, 0, -1));
+            }
+            return output(joined, null, finalColumnsOrder, orderBy, limit, offset, release, plan, node);
+        }
+        if (!orderBy.isEmpty()) {
+            return sort(joined, where, finalColumnsOrder, orderBy, limit, offset, release, null, null);
+        }
+        return new Result(new RowCursor(joined, where, finalColumnsOrder, offset, limit), release);
+    }
 
-        for (Row original : filteredRows) {
-            Row newRow = new Row();
-            for (String col : finalColumnsOrder) {
-                Object val = original.get(col);
-                newRow.put(col, val); 
+    // Each key is assumed to match a row on one side with 1/ndv of the other, using the side with more distinct values;
+    // without statistics every row is assumed to find one partner.
+    private static Plan.Node joinNode(Plan plan, Table left, Table right, Join join, List<String> leftKeys, List<String> rightKeys,
+                                      List<JoinCondition> residual, boolean buildLeft) {
+        long leftRows = left.getRowCount();
+        long rightRows = right.getRowCount();
+        Plan.Node leftScan = plan.node("Full scan on " + left.getName() + " " + join.getLeftAlias(), leftRows);
+        leftScan.setActual(leftRows);
+        Plan.Node rightScan = plan.node("Full scan on " + right.getName() + " " + join.getRightAlias(), rightRows);
+        rightScan.setActual(rightRows);
+
+        StringBuilder on = new StringBuilder();
+        for (JoinCondition condition : join.getConditions()) {
+            on.append(on.length() == 0 ? "" : " AND ").append(condition);
+        }
+        double estimate;
+        String operation;
+        if (leftKeys.isEmpty()) {
+            estimate = (double) leftRows * rightRows;
+            for (JoinCondition condition : residual) {
+                estimate *= condition.getOperator().getSelectivity();
             }
-            projectedRows.add(newRow);
+            operation = "Nested loop join on " + on;
+        } else {
+            estimate = -1;
+            for (int k = 0; k < leftKeys.size(); k++) {
+                double distinct = Math.max(Planner.distinctValues(left, leftKeys.get(k)), Planner.distinctValues(right, rightKeys.get(k)));
+                if (distinct > 0) {
+                    estimate = (estimate < 0 ? (double) leftRows * rightRows : estimate) / distinct;
+                }
+            }
+            if (estimate < 0) {
+                estimate = Math.min(leftRows, rightRows);
+            }
+            for (JoinCondition condition : residual) {
+                estimate *= condition.getOperator().getSelectivity();
+            }
+            operation = "Hash join (build " + (buildLeft ? join.getLeftAlias() : join.getRightAlias()) + ") on " + on;
+        }
+        if (join.getType() == JoinType.LEFT) {
+            estimate = Math.max(estimate, leftRows);
+            operation = "Left " + Character.toLowerCase(operation.charAt(0)) + operation.substring(1);
         }
+        return plan.node(operation, estimate, leftScan, rightScan);
+    }
 
-        return new Result(projectedRows);
+    // Turns a condition around if needed so that its left column belongs to the left table, and strips the aliases.
+    private static JoinCondition orient(JoinCondition condition, Join join) throws DatabaseException {
+        for (JoinCondition candidate : new JoinCondition[] {condition, condition.reversed()}) {
+            String leftColumn = columnOf(candidate.getLeftColumn(), join.getLeftAlias());
+            String rightColumn = columnOf(candidate.getRightColumn(), join.getRightAlias());
+            if (leftColumn != null && rightColumn != null) {
+                return new JoinCondition(leftColumn, candidate.getOperator(), rightColumn);
+            }
+        }
+        throw new DatabaseException("ON condition " + condition + " must compare a column of " + join.getLeftAlias()
+                + " with a column of " + join.getRightAlias() + ".");
     }
 
-    public Result executeDelete(String tableName, WhereClause where) throws DatabaseException {
-        loadTableContext(tableName);
-        
-        List<Row> initialRows = currentTable.getRows();
-        int initialSize = initialRows.size();
-        
+    // The bare column name if the reference can belong to the aliased table, otherwise null.
+    private static String columnOf(String reference, String alias) {
+        int dot = reference.indexOf('.');
+        if (dot < 0) {
+            return reference;
+        }
+        return reference.substring(0, dot).equals(alias) ? reference.substring(dot + 1) : null;
+    }
+
+    private List<Row> aggregate(Table table, List<String> columns, List<Aggregate> aggregates, List<String> groupBy, WhereClause where,
+                                Plan plan) {
+        List<Row> rows = table.getStoredRows();
+        Planner.AccessPath path = where == null ? null : lookupIndex(table, where);
+        ParallelScanner.RangeAggregation aggregation;
+        Plan.Node node = null;
+        boolean filtered = where != null;
+        if (path != null) {
+            List<Row> candidates = path.getRows();
+            WhereClause residual = where.isSingleComparison() ? null : where;
+            rows = candidates;
+            aggregation = (partial, from, to) -> partial.addRows(candidates, from, to, residual);
+            if (plan != null) {
+                node = plan.node(path.describe(table), path.getEstimatedRows());
+                node.setActual(candidates.size());
+                filtered = residual != null;
+            }
+        } else if (table.getColumnStore() != null) {
+            ColumnStore store = table.getColumnStore();
+            BitSet selected = ColumnScanner.select(table, where);
+            aggregation = (partial, from, to) -> partial.addPositions(store, selected, from, to);
+            if (plan != null) {
+                node = plan.node("Column scan on " + table.getName() + (where == null ? "" : ": " + where), Planner.estimateRows(table, where));
+                node.setActual(selected.cardinality());
+                filtered = false;
+            }
+        } else {
+            List<Row> source = rows;
+            aggregation = (partial, from, to) -> partial.addRows(source, from, to, where);
+            if (plan != null) {
+                node = plan.node("Full scan on " + table.getName(), table.getRowCount());
+                node.setActual(table.getRowCount());
+            }
+        }
+
+        Supplier<HashAggregator> partials = () -> new HashAggregator(aggregates, groupBy);
+        HashAggregator aggregator;
+        metrics.rowsScanned(path != null ? rows.size() : table.getStoredRows().size());
+        if (isParallel(rows)) {
+            aggregator = parallelScanner.aggregate(rows, partials, aggregation);
+        } else {
+            aggregator = partials.get();
+            aggregation.add(aggregator, 0, rows.size());
+        }
+        if (plan != null) {
+            if (filtered) {
+                node = plan.node("Filter: " + where, Planner.estimateRows(table, where), node);
+                node.setActual(aggregator.getInputRows());
+            }
+            // At most one group per combination of grouping values, and never more groups than input rows.
+            double groups = 1;
+            for (String column : groupBy) {
+                double distinct = Planner.distinctValues(table, column);
+                groups *= distinct < 0 ? node.getEstimatedRows() : distinct;
+            }
+            groups = groupBy.isEmpty() ? 1 : Math.min(groups, node.getEstimatedRows());
+            Plan.Node aggregate = plan.node("Hash aggregate" + (groupBy.isEmpty() ? "" : " group by " + String.join(", ", groupBy)),
+                    groups, node);
+            aggregate.setActual(groupBy.isEmpty() ? 1 : aggregator.getGroupCount());
+            plan.setRoot(aggregate);
+        }
+        return aggregator.getRows(columns);
+    }
+
+    // Pages the rows coming out of the plan's last node, sorting them first if asked to.
+    private Result output(Iterator<Row> rows, WhereClause where, List<String> columns, List<SortKey> orderBy, long limit, long offset,
+                          Runnable release, Plan plan, Plan.Node input) throws DatabaseException {
+        if (!orderBy.isEmpty()) {
+            return sort(rows, where, columns, orderBy, limit, offset, release, plan, input);
+        }
+        if (plan != null) {
+            plan.setRoot(resultNode(plan, input, limit, offset));
+        }
+        return new Result(new RowCursor(rows, where, columns, offset, limit), release);
+    }
+
+    private Result sort(Iterator<Row> rows, WhereClause where, List<String> columns, List<SortKey> orderBy, long limit, long offset,
+                        Runnable release, Plan plan, Plan.Node input) throws DatabaseException {
+        RowComparator comparator = new RowComparator(orderBy);
+        Iterator<Row> filtered = new RowCursor(rows, where, null, 0, -1);
+        if (limit >= 0 && limit <= MAX_TOP_N && offset <= MAX_TOP_N - limit) {
+            // The heap holds rows of the table itself, so the lock stays until the result is closed.
+            List<Row> top = RowSorter.top(filtered, comparator, (int) (offset + limit));
+            if (plan != null) {
+                Plan.Node node = plan.node("Top-N sort by " + describe(orderBy) + " keeping " + (offset + limit),
+                        Math.min(offset + limit, input.getEstimatedRows()), input);
+                node.setActual(top.size());
+                plan.setRoot(resultNode(plan, node, limit, offset));
+            }
+            return new Result(new RowCursor(top.iterator(), null, columns, offset, -1), release);
+        }
+
+        List<String> sortColumns = new ArrayList<>(columns);
+        for (SortKey key : orderBy) {
+            if (!sortColumns.contains(key.getColumn())) {
+                sortColumns.add(key.getColumn());
+            }
+        }
+        Path directory = config.getSortDirectory() == null ? null : Paths.get(config.getSortDirectory());
+        RowSorter sorter = new RowSorter(sortColumns, comparator, config.getSortMemoryBytes(), directory);
+        Iterator<Row> sorted = sorter.sort(filtered);
+        if (plan != null) {
+            Plan.Node node = plan.node("Sort by " + describe(orderBy), input.getEstimatedRows(), input);
+            sorted = node.count(sorted);
+            plan.setRoot(resultNode(plan, node, limit, offset));
+        }
+        // The sorted rows are copies, so the table can be released before they are read.
+        release.run();
+        List<String> projection = sortColumns.size() == columns.size() ? null : columns;
+        return new Result(new RowCursor(sorted, null, projection, offset, limit), sorter::close);
+    }
+
+    private static Plan.Node resultNode(Plan plan, Plan.Node input, long limit, long offset) {
+        double estimate = Math.max(0, input.getEstimatedRows() - offset);
+        if (limit >= 0) {
+            estimate = Math.min(estimate, limit);
+        }
+        String operation = "Result" + (limit >= 0 ? " LIMIT " + limit : "") + (offset > 0 ? " OFFSET " + offset : "");
+        return plan.node(operation, estimate, input);
+    }
+
+    private static String describe(List<SortKey> orderBy) {
+        StringBuilder text = new StringBuilder();
+        for (SortKey key : orderBy) {
+            text.append(text.length() == 0 ? "" : ", ").append(key);
+        }
+        return text.toString();
+    }
+
+    static Row project(Row original, List<String> columns) {
+        Row newRow = new Row();
+        for (String col : columns) {
+            Object val = original.get(col);
+            newRow.put(col, val);
+        }
+        return newRow;
+    }
+
+    private Result delete(Transaction tx, Table table, WhereClause where) throws DatabaseException {
+        int initialSize = table.getRowCount();
+
         if (where == null) {
-            currentTable.setRows(new ArrayList<>());
+            if (tx != null) {
+                List<Row> deletedRows = new ArrayList<>(table.getRows());
+                table.deleteRows(deletedRows);
+                tx.addUndo(() -> table.restoreRows(deletedRows));
+            } else {
+                table.setRows(new ArrayList<>());
+            }
+            if (initialSize > 0) {
+                write(tx, table, isLogging() ? log.truncateRecord(table) : null);
+            }
         } else {
-            List<Row> keptRows = initialRows.stream()
-                .filter(row -> !where.matches(row))
-                .collect(Collectors.toList());
-            currentTable.setRows(keptRows);
-        }
-        
-        int deletedCount = initialSize - currentTable.getRows().size();
-        storage.saveTable(currentTable);
-        
+            List<Row> deletedRows = findMatchingRows(table, where);
+            if (!deletedRows.isEmpty()) {
+                table.deleteRows(deletedRows);
+                if (tx != null) {
+                    tx.addUndo(() -> table.restoreRows(deletedRows));
+                }
+                write(tx, table, isLogging() ? log.deleteRecord(table, deletedRows) : null);
+            }
+        }
+
+        int deletedCount = initialSize - table.getRowCount();
+        if (deletedCount == 0 && tx == null) {
+            persist(table);
+        }
+
         return new Result("Query OK, " + deletedCount + " rows affected", true);
     }
 
-    public Result executeUpdate(String tableName, Map<String, Object> setClauses, WhereClause where) throws DatabaseException {
-        loadTableContext(tableName);
-        
-        int updatedCount = 0;
-        for (Row row : currentTable.getRows()) {
-            if (where == null || where.matches(row)) {
-                for (Map.Entry<String, Object> entry : setClauses.entrySet()) {
-                    row.put(entry.getKey(), entry.getValue());
+    private Result update(Transaction tx, Table table, Map<String, Object> setClauses, WhereClause where) throws DatabaseException {
+        List<Row> updatedRows = findMatchingRows(table, where);
+        if (tx != null && !updatedRows.isEmpty()) {
+            List<String> columns = new ArrayList<>(setClauses.keySet());
+            Object[][] previous = new Object[updatedRows.size()][columns.size()];
+            for (int i = 0; i < updatedRows.size(); i++) {
+                for (int j = 0; j < columns.size(); j++) {
+                    previous[i][j] = updatedRows.get(i).get(columns.get(j));
+                }
+            }
+            tx.addUndo(() -> {
+                for (int i = 0; i < updatedRows.size(); i++) {
+                    for (int j = 0; j < columns.size(); j++) {
+                        table.update(updatedRows.get(i), columns.get(j), previous[i][j]);
+                    }
                 }
-                updatedCount++;
+            });
+        }
+        for (Row row : updatedRows) {
+            for (Map.Entry<String, Object> entry : setClauses.entrySet()) {
+                table.update(row, entry.getKey(), entry.getValue());
             }
         }
-        
+
+        int updatedCount = updatedRows.size();
         if (updatedCount > 0) {
-            storage.saveTable(currentTable);
+            write(tx, table, isLogging() ? log.updateRecord(table, updatedRows, setClauses) : null);
         }
-        
+
         return new Result("Query OK, " + updatedCount + " rows affected", true);
     }
 
-    private void loadTableContext(String tableName) throws DatabaseException {
-        if (currentTable == null || !currentTable.getName().equals(tableName)) {
-            currentTable = storage.loadTable(tableName);
+    private Table openTable(String tableName) throws DatabaseException {
+        Table table = storage.loadTable(tableName);
+        // Loading inserts every row, which would otherwise count as unsaved changes.
+        table.markSaved();
+        log.replay(table);
+        metrics.tableLoaded(tableName);
+        return table;
+    }
+
+    private List<Row> findMatchingRows(Table table, WhereClause where) {
+        if (where == null) {
+            metrics.rowsScanned(table.getStoredRows().size());
+            return new ArrayList<>(table.getRows());
+        }
+
+        Planner.AccessPath path = lookupIndex(table, where);
+        if (path != null) {
+            metrics.rowsScanned(path.getRows().size());
+            return where.isSingleComparison() ? path.getRows() : filter(path.getRows(), where);
         }
+
+        metrics.rowsScanned(table.getStoredRows().size());
+        if (table.getColumnStore() != null) {
+            return ColumnScanner.scan(table, where);
+        }
+
+        return filter(table.getStoredRows(), where);
+    }
+
+    // The cheapest index lookup that can answer one conjunct, with its rows, or null if the table should be scanned.
+    private static Planner.AccessPath lookupIndex(Table table, WhereClause where) {
+        for (Planner.AccessPath path : Planner.indexPaths(table, where)) {
+            if (path.lookup(table)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    private List<Row> filter(List<Row> rows, WhereClause where) {
+        if (isParallel(rows)) {
+            return parallelScanner.filter(rows, where);
+        }
+        List<Row> matches = new ArrayList<>();
+        for (Row row : rows) {
+            if (!row.isDeleted() && where.matches(row)) {
+                matches.add(row);
+            }
+        }
+        return matches;
+    }
+
+    // Autocommit statements hold the write lock for the statement; a transaction keeps it until COMMIT or ROLLBACK.
+    private Table lockForWrite(Transaction tx, String tableName) throws DatabaseException {
+        Table table = catalog.acquire(tableName);
+        if (tx != null && tx.holds(table)) {
+            return table;
+        }
+        try {
+            lock(table.getLock().writeLock(), table);
+        } catch (DatabaseException e) {
+            catalog.release(table);
+            throw e;
+        }
+        if (tx != null) {
+            tx.touch(table);
+            catalog.pin(table);
+        }
+        return table;
+    }
+
+    private void unlockAfterWrite(Transaction tx, Table table) {
+        if (tx == null) {
+            table.getLock().writeLock().unlock();
+        }
+        catalog.release(table);
+    }
+
+    private void lock(Lock lock, Table table) throws DatabaseException {
+        try {
+            if (!lock.tryLock(config.getLockTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new DatabaseException("Timed out waiting for a lock on " + table.getName() + ".");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while waiting for a lock on " + table.getName() + ".");
+        }
+    }
+
+    // Autocommit statements are logged and persisted right away; inside a transaction the record waits for COMMIT.
+    private void write(Transaction tx, Table table, WriteAheadLog.Record record) throws DatabaseException {
+        if (tx != null) {
+            if (record != null) {
+                tx.addRecord(record);
+            }
+            return;
+        }
+        if (record != null) {
+            log.append(Collections.singletonList(record));
+            log.sync();
+        }
+        persist(table);
+    }
+
+    private boolean isParallel(List<Row> rows) {
+        return parallelScanner != null && rows.size() >= config.getParallelThreshold();
+    }
+
+    private boolean isLogging() {
+        return config.getPersistenceMode() == EngineConfig.PersistenceMode.LOG;
+    }
+
+    // Called after each autocommitted change and commit. With the log, the change is already as durable as the
+    // policy asks and the table file only needs a checkpoint now and then, which the flusher takes. Without it,
+    // the table file is the only copy: written here under SYNC, and by the flusher otherwise.
+    private void persist(Table table) throws DatabaseException {
+        if (!isLogging()) {
+            if (flusher == null) {
+                storage.saveTable(table, true);
+                table.markSaved();
+            } else if (table.getUnsavedChanges() >= config.getFlushRows()) {
+                flusher.request();
+            }
+            return;
+        }
+        long unsaved = table.getLogSequence() - table.getSnapshotSequence();
+        if (unsaved >= 2L * config.getCheckpointInterval()) {
+            // The flusher keeps finding the table busy, so stop the log from growing without bound.
+            checkpoint(table);
+        } else if (unsaved >= config.getCheckpointInterval()) {
+            flusher.request();
+        }
+    }
+
+    // The flusher's pass: forces the log under the INTERVAL policy, then writes the tables that need it.
+    // Tables busy with a statement, a transaction or an open cursor are retried on the next pass.
+    private void flushTables() {
+        if (isLogging() && config.getDurability() == EngineConfig.Durability.INTERVAL) {
+            try {
+                log.force();
+            } catch (DatabaseException e) {
+                System.err.println("ERROR: " + e.getMessage());
+            }
+        }
+        for (Table table : catalog.getResidentTables()) {
+            if (!needsFlush(table)) {
+                continue;
+            }
+            catalog.pin(table);
+            try {
+                // A checkpoint drops tombstones and truncates the log, so it needs the table to itself.
+                Lock lock = isLogging() ? table.getLock().writeLock() : table.getLock().readLock();
+                if (lock.tryLock()) {
+                    try {
+                        if (needsFlush(table)) {
+                            flush(table);
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } catch (DatabaseException e) {
+                System.err.println("ERROR: " + e.getMessage());
+            } finally {
+                catalog.unpin(table);
+            }
+        }
+    }
+
+    private boolean needsFlush(Table table) {
+        if (isLogging()) {
+            return table.getLogSequence() - table.getSnapshotSequence() >= config.getCheckpointInterval();
+        }
+        return table.isDirty();
+    }
+
+    private void flush(Table table) throws DatabaseException {
+        if (isLogging()) {
+            checkpoint(table);
+        } else {
+            storage.saveTable(table, config.getDurability() != EngineConfig.Durability.OS);
+            table.markSaved();
+        }
+    }
+
+    private ScheduledExecutorService startCompactor(long intervalMillis) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::compactTables, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    // Tables busy with a statement, a transaction or an open cursor are skipped until the next pass.
+    // The same pass refreshes the statistics of tables that have changed enough since they were last analyzed.
+    private void compactTables() {
+        for (Table table : catalog.getResidentTables()) {
+            boolean compact = table.needsCompaction(config.getCompactionThreshold());
+            boolean analyze = table.needsAnalyze(config.getAnalyzeThreshold());
+            if (!compact && !analyze) {
+                continue;
+            }
+            catalog.pin(table);
+            try {
+                Lock lock = compact ? table.getLock().writeLock() : table.getLock().readLock();
+                if (lock.tryLock()) {
+                    try {
+                        if (compact) {
+                            table.compact();
+                        }
+                        if (analyze) {
+                            table.analyze();
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+            } finally {
+                catalog.unpin(table);
+            }
+        }
+    }
+
+    private void checkpoint(Table table) throws DatabaseException {
+        // Snapshots omit tombstones, so drop them first to keep resequenced rows in line with the file.
+        table.compact();
+        // The snapshot must reach the disk before the log records it replaces are dropped, unless the policy
+        // leaves both to the operating system anyway.
+        storage.saveTable(table, config.getDurability() != EngineConfig.Durability.OS);
+        table.markSaved();
+        table.resequence();
+        log.truncate(table);
     }
 }
\ No newline at end of file
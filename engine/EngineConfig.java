@@ -0,0 +1,273 @@
+package engine;
+
+import model.TableLayout;
+
+public class EngineConfig {
+    public enum PersistenceMode {
+        SNAPSHOT,
+        LOG
+    }
+
+    public enum StorageFormat {
+        JSON,
+        BINARY
+    }
+
+    // When a statement's changes reach the disk: before it returns, within the flush interval, or whenever the
+    // OS writes its cache back.
+    public enum Durability {
+        SYNC,
+        INTERVAL,
+        OS
+    }
+
+    private PersistenceMode persistenceMode = PersistenceMode.LOG;
+    private StorageFormat storageFormat = StorageFormat.JSON;
+    private int checkpointInterval = 1000;
+    private long cacheMemoryBytes = 256L * 1024 * 1024;
+    private TableLayout tableLayout = TableLayout.ROW;
+    private boolean parallelScan = false;
+    private int parallelThreshold = 50_000;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+    private long lockTimeoutMillis = 10_000;
+    private double compactionThreshold = 0.2;
+    private long compactionIntervalMillis = 1_000;
+    private double analyzeThreshold = 0.2;
+    private Durability durability = Durability.SYNC;
+    private long flushIntervalMillis = 1_000;
+    private long flushRows = 10_000;
+    private long sortMemoryBytes = 64L * 1024 * 1024;
+    private String sortDirectory = null;
+    private String importDirectory = ".";
+
+    public static EngineConfig fromSystemProperties() {
+        EngineConfig config = new EngineConfig();
+        String mode = System.getProperty("db.persistence");
+        if (mode != null) {
+            config.setPersistenceMode(PersistenceMode.valueOf(mode.trim().toUpperCase()));
+        }
+        String format = System.getProperty("db.storage.format");
+        if (format != null) {
+            config.setStorageFormat(StorageFormat.valueOf(format.trim().toUpperCase()));
+        }
+        config.setCheckpointInterval(Integer.getInteger("db.checkpoint.interval", config.getCheckpointInterval()));
+        config.setCacheMemoryBytes(Long.getLong("db.cache.bytes", config.getCacheMemoryBytes()));
+        String layout = System.getProperty("db.table.layout");
+        if (layout != null) {
+            config.setTableLayout(TableLayout.valueOf(layout.trim().toUpperCase()));
+        }
+        config.setParallelScan(Boolean.getBoolean("db.parallel"));
+        config.setParallelThreshold(Integer.getInteger("db.parallel.threshold", config.getParallelThreshold()));
+        config.setParallelism(Integer.getInteger("db.parallel.threads", config.getParallelism()));
+        config.setLockTimeoutMillis(Long.getLong("db.lock.timeout.ms", config.getLockTimeoutMillis()));
+        String threshold = System.getProperty("db.compaction.threshold");
+        if (threshold != null) {
+            config.setCompactionThreshold(Double.parseDouble(threshold.trim()));
+        }
+        config.setCompactionIntervalMillis(Long.getLong("db.compaction.interval.ms", config.getCompactionIntervalMillis()));
+        String analyze = System.getProperty("db.analyze.threshold");
+        if (analyze != null) {
+            config.setAnalyzeThreshold(Double.parseDouble(analyze.trim()));
+        }
+        String durability = System.getProperty("db.durability");
+        if (durability != null) {
+            config.setDurability(Durability.valueOf(durability.trim().toUpperCase()));
+        }
+        config.setFlushIntervalMillis(Long.getLong("db.flush.interval.ms", config.getFlushIntervalMillis()));
+        config.setFlushRows(Long.getLong("db.flush.rows", config.getFlushRows()));
+        config.setSortMemoryBytes(Long.getLong("db.sort.bytes", config.getSortMemoryBytes()));
+        config.setSortDirectory(System.getProperty("db.sort.dir"));
+        config.setImportDirectory(System.getProperty("db.import.dir", config.getImportDirectory()));
+        return config;
+    }
+
+    public PersistenceMode getPersistenceMode() {
+        return persistenceMode;
+    }
+
+    public void setPersistenceMode(PersistenceMode persistenceMode) {
+        this.persistenceMode = persistenceMode;
+    }
+
+    public StorageFormat getStorageFormat() {
+        return storageFormat;
+    }
+
+    public void setStorageFormat(StorageFormat storageFormat) {
+        this.storageFormat = storageFormat;
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive");
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public long getCacheMemoryBytes() {
+        return cacheMemoryBytes;
+    }
+
+    public void setCacheMemoryBytes(long cacheMemoryBytes) {
+        if (cacheMemoryBytes < 0) {
+            throw new IllegalArgumentException("Cache memory budget must not be negative");
+        }
+        this.cacheMemoryBytes = cacheMemoryBytes;
+    }
+
+    public TableLayout getTableLayout() {
+        return tableLayout;
+    }
+
+    public void setTableLayout(TableLayout tableLayout) {
+        this.tableLayout = tableLayout;
+    }
+
+    public boolean isParallelScan() {
+        return parallelScan;
+    }
+
+    public void setParallelScan(boolean parallelScan) {
+        this.parallelScan = parallelScan;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("Parallel threshold must be positive");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+    }
+
+    public long getLockTimeoutMillis() {
+        return lockTimeoutMillis;
+    }
+
+    public void setLockTimeoutMillis(long lockTimeoutMillis) {
+        if (lockTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Lock timeout must not be negative");
+        }
+        this.lockTimeoutMillis = lockTimeoutMillis;
+    }
+
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    // Fraction of a table's stored rows that must be tombstones before the background pass compacts it.
+    public void setCompactionThreshold(double compactionThreshold) {
+        if (!(compactionThreshold > 0 && compactionThreshold <= 1)) {
+            throw new IllegalArgumentException("Compaction threshold must be in (0, 1]");
+        }
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public long getCompactionIntervalMillis() {
+        return compactionIntervalMillis;
+    }
+
+    // Zero disables background compaction; tombstones are then dropped only at checkpoints.
+    public void setCompactionIntervalMillis(long compactionIntervalMillis) {
+        if (compactionIntervalMillis < 0) {
+            throw new IllegalArgumentException("Compaction interval must not be negative");
+        }
+        this.compactionIntervalMillis = compactionIntervalMillis;
+    }
+
+    public Durability getDurability() {
+        return durability;
+    }
+
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    // How often the background flusher writes dirty tables, and forces the log under the INTERVAL policy.
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive");
+        }
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public long getFlushRows() {
+        return flushRows;
+    }
+
+    // Snapshot persistence only: unsaved row changes in one table that make the flusher write it without waiting
+    // for the interval.
+    public void setFlushRows(long flushRows) {
+        if (flushRows <= 0) {
+            throw new IllegalArgumentException("Flush row threshold must be positive");
+        }
+        this.flushRows = flushRows;
+    }
+
+    public double getAnalyzeThreshold() {
+        return analyzeThreshold;
+    }
+
+    // Rows changed since the last ANALYZE, as a fraction of the table, before the background pass refreshes its
+    // statistics. Runs on the compaction schedule, so a zero compaction interval turns it off too.
+    public void setAnalyzeThreshold(double analyzeThreshold) {
+        if (!(analyzeThreshold > 0)) {
+            throw new IllegalArgumentException("Analyze threshold must be positive");
+        }
+        this.analyzeThreshold = analyzeThreshold;
+    }
+
+    public long getSortMemoryBytes() {
+        return sortMemoryBytes;
+    }
+
+    // How much an ORDER BY may buffer before it spills sorted runs to disk.
+    public void setSortMemoryBytes(long sortMemoryBytes) {
+        if (sortMemoryBytes < 0) {
+            throw new IllegalArgumentException("Sort memory budget must not be negative");
+        }
+        this.sortMemoryBytes = sortMemoryBytes;
+    }
+
+    public String getSortDirectory() {
+        return sortDirectory;
+    }
+
+    // Where sort runs are spilled; null means the system temporary directory.
+    public void setSortDirectory(String sortDirectory) {
+        this.sortDirectory = sortDirectory;
+    }
+
+    public String getImportDirectory() {
+        return importDirectory;
+    }
+
+    // The only place COPY reads from; file names are resolved against it and may not leave it.
+    public void setImportDirectory(String importDirectory) {
+        if (importDirectory == null || importDirectory.isEmpty()) {
+            throw new IllegalArgumentException("Import directory must not be empty");
+        }
+        this.importDirectory = importDirectory;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,282 @@
+package engine;
+
+import model.ColumnStore;
+import model.ColumnVector;
+import model.NumericColumn;
+import model.Row;
+import model.StringColumn;
+import parser.Aggregate;
+import parser.WhereClause;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Groups rows in a hash table and folds each aggregate into primitive accumulators, so a scan never boxes
+// a number per row. Partial aggregators built over separate chunks can be merged into one.
+class HashAggregator {
+    private static final Object NO_GROUP = Collections.emptyList();
+
+    private final List<Aggregate> aggregates;
+    private final List<String> groupBy;
+    // Insertion ordered, so groups come out in the order they first appear in the table.
+    private final Map<Object, Group> groups = new LinkedHashMap<>();
+    // Rows folded in, for EXPLAIN.
+    private long inputRows;
+
+    HashAggregator(List<Aggregate> aggregates, List<String> groupBy) {
+        this.aggregates = aggregates;
+        this.groupBy = groupBy;
+    }
+
+    void addRows(List<Row> rows, int from, int to, WhereClause where) {
+        int width = groupBy.size();
+        for (int i = from; i < to; i++) {
+            Row row = rows.get(i);
+            if (row.isDeleted() || (where != null && !where.matches(row))) {
+                continue;
+            }
+            inputRows++;
+            Object key;
+            if (width == 0) {
+                key = NO_GROUP;
+            } else if (width == 1) {
+                key = row.get(groupBy.get(0));
+            } else {
+                Object[] values = new Object[width];
+                for (int g = 0; g < width; g++) {
+                    values[g] = row.get(groupBy.get(g));
+                }
+                key = Arrays.asList(values);
+            }
+            Group group = groupFor(key);
+            for (int j = 0; j < aggregates.size(); j++) {
+                Aggregate aggregate = aggregates.get(j);
+                if (aggregate.isCountAll()) {
+                    group.counts[j]++;
+                } else {
+                    group.add(j, row.get(aggregate.getColumn()));
+                }
+            }
+        }
+    }
+
+    // Reads the column vectors directly: numeric inputs come straight from the double arrays, and a single
+    // text grouping column is resolved through its dictionary codes instead of hashing every value.
+    void addPositions(ColumnStore store, BitSet selected, int from, int to) {
+        int width = groupBy.size();
+        ColumnVector[] keys = new ColumnVector[width];
+        for (int g = 0; g < width; g++) {
+            keys[g] = store.getColumn(groupBy.get(g));
+        }
+        int[] codes = width == 1 && keys[0] instanceof StringColumn ? ((StringColumn) keys[0]).getCodes() : null;
+        Group[] byCode = codes == null ? null : new Group[((StringColumn) keys[0]).getDictionary().size()];
+        Group nullCodeGroup = null;
+        Group onlyGroup = width == 0 ? groupFor(NO_GROUP) : null;
+
+        ColumnVector[] inputs = new ColumnVector[aggregates.size()];
+        double[][] numbers = new double[aggregates.size()][];
+        for (int j = 0; j < inputs.length; j++) {
+            Aggregate aggregate = aggregates.get(j);
+            if (!aggregate.isCountAll()) {
+                inputs[j] = store.getColumn(aggregate.getColumn());
+                if (inputs[j] instanceof NumericColumn) {
+                    numbers[j] = ((NumericColumn) inputs[j]).getValues();
+                }
+            }
+        }
+
+        for (int i = selected.nextSetBit(from); i >= 0 && i < to; i = selected.nextSetBit(i + 1)) {
+            inputRows++;
+            Group group;
+            if (codes != null) {
+                int code = codes[i];
+                if (code < 0) {
+                    if (nullCodeGroup == null) {
+                        nullCodeGroup = groupFor(null);
+                    }
+                    group = nullCodeGroup;
+                } else {
+                    group = byCode[code];
+                    if (group == null) {
+                        group = groupFor(keys[0].get(i));
+                        byCode[code] = group;
+                    }
+                }
+            } else if (width == 0) {
+                group = onlyGroup;
+            } else if (width == 1) {
+                group = groupFor(keys[0] == null ? null : keys[0].get(i));
+            } else {
+                Object[] values = new Object[width];
+                for (int g = 0; g < width; g++) {
+                    values[g] = keys[g] == null ? null : keys[g].get(i);
+                }
+                group = groupFor(Arrays.asList(values));
+            }
+
+            for (int j = 0; j < inputs.length; j++) {
+                ColumnVector input = inputs[j];
+                if (numbers[j] != null) {
+                    if (!input.isNull(i)) {
+                        group.counts[j]++;
+                        group.addNumber(j, numbers[j][i]);
+                    }
+                } else if (input != null) {
+                    group.add(j, input.get(i));
+                } else if (aggregates.get(j).isCountAll()) {
+                    group.counts[j]++;
+                }
+            }
+        }
+    }
+
+    void merge(HashAggregator other) {
+        inputRows += other.inputRows;
+        for (Map.Entry<Object, Group> entry : other.groups.entrySet()) {
+            Group mine = groups.get(entry.getKey());
+            if (mine == null) {
+                groups.put(entry.getKey(), entry.getValue());
+            } else {
+                mine.merge(entry.getValue());
+            }
+        }
+    }
+
+    long getInputRows() {
+        return inputRows;
+    }
+
+    int getGroupCount() {
+        return groups.size();
+    }
+
+    // One row per group with the given columns, each an aggregate label or a GROUP BY column.
+    List<Row> getRows(List<String> columns) {
+        if (groupBy.isEmpty() && groups.isEmpty()) {
+            // Aggregates over no rows still produce one row, e.g. COUNT(*) = 0.
+            groupFor(NO_GROUP);
+        }
+        int[] sources = new int[columns.size()];
+        for (int c = 0; c < sources.length; c++) {
+            sources[c] = -1 - groupBy.indexOf(columns.get(c));
+            for (int j = 0; j < aggregates.size(); j++) {
+                if (aggregates.get(j).getLabel().equals(columns.get(c))) {
+                    sources[c] = j;
+                    break;
+                }
+            }
+        }
+
+        List<Row> rows = new ArrayList<>(groups.size());
+        for (Group group : groups.values()) {
+            Row row = new Row();
+            for (int c = 0; c < sources.length; c++) {
+                int source = sources[c];
+                row.put(columns.get(c), source >= 0 ? group.result(source, aggregates.get(source)) : keyValue(group, -1 - source));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private Object keyValue(Group group, int index) {
+        return groupBy.size() == 1 ? group.key : ((List<?>) group.key).get(index);
+    }
+
+    private Group groupFor(Object key) {
+        Group group = groups.get(key);
+        if (group == null) {
+            group = new Group(key, aggregates.size());
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    private static final class Group {
+        private final Object key;
+        // Non-null values seen (rows, for COUNT(*)), and how many of them were numbers.
+        private final long[] counts;
+        private final long[] numbers;
+        private final double[] sums;
+        private final double[] mins;
+        private final double[] maxs;
+        // MIN and MAX over text; numbers sort before text, as in SQLite.
+        private String[] minTexts;
+        private String[] maxTexts;
+
+        Group(Object key, int width) {
+            this.key = key;
+            this.counts = new long[width];
+            this.numbers = new long[width];
+            this.sums = new double[width];
+            this.mins = new double[width];
+            this.maxs = new double[width];
+            Arrays.fill(mins, Double.POSITIVE_INFINITY);
+            Arrays.fill(maxs, Double.NEGATIVE_INFINITY);
+        }
+
+        void add(int j, Object value) {
+            if (value == null) {
+                return;
+            }
+            counts[j]++;
+            if (value instanceof Number) {
+                addNumber(j, ((Number) value).doubleValue());
+            } else {
+                addText(j, value.toString());
+            }
+        }
+
+        void addNumber(int j, double value) {
+            numbers[j]++;
+            sums[j] += value;
+            if (value < mins[j]) mins[j] = value;
+            if (value > maxs[j]) maxs[j] = value;
+        }
+
+        void addText(int j, String value) {
+            if (minTexts == null) {
+                minTexts = new String[counts.length];
+                maxTexts = new String[counts.length];
+            }
+            if (minTexts[j] == null || value.compareTo(minTexts[j]) < 0) minTexts[j] = value;
+            if (maxTexts[j] == null || value.compareTo(maxTexts[j]) > 0) maxTexts[j] = value;
+        }
+
+        void merge(Group other) {
+            for (int j = 0; j < counts.length; j++) {
+                counts[j] += other.counts[j];
+                numbers[j] += other.numbers[j];
+                sums[j] += other.sums[j];
+                mins[j] = Math.min(mins[j], other.mins[j]);
+                maxs[j] = Math.max(maxs[j], other.maxs[j]);
+                if (other.minTexts != null && other.minTexts[j] != null) {
+                    addText(j, other.minTexts[j]);
+                    addText(j, other.maxTexts[j]);
+                }
+            }
+        }
+
+        Object result(int j, Aggregate aggregate) {
+            switch (aggregate.getFunction()) {
+                case COUNT:
+                    return (double) counts[j];
+                case SUM:
+                    return numbers[j] == 0 ? null : sums[j];
+                case AVG:
+                    return numbers[j] == 0 ? null : sums[j] / numbers[j];
+                case MIN:
+                    if (numbers[j] > 0) return mins[j];
+                    return minTexts == null ? null : minTexts[j];
+                default:
+                    if (maxTexts != null && maxTexts[j] != null) return maxTexts[j];
+                    return numbers[j] == 0 ? null : maxs[j];
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,235 @@
+package engine;
+
+import model.Row;
+import parser.JoinCondition;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Equi-join: hashes the build side on its key columns, then streams the probe side past it, so only
+// the build side is held in memory. Rows with a null key never match.
+class HashJoin implements Iterator<Row> {
+    private final JoinedRow.Schema schema;
+    private final boolean buildLeft;
+    private final boolean leftOuter;
+    private final String[] probeKeys;
+    private final List<JoinCondition> residual;
+    private final Map<Object, List<Row>> table = new HashMap<>();
+    // Whether each build key column holds numbers and text, so a probe only tries the other form when it can match.
+    private final boolean[] buildNumbers;
+    private final boolean[] buildText;
+    private final Iterator<Row> probe;
+    // Left rows that found a partner, when the left side is the build side of a LEFT JOIN.
+    private final Set<Row> matched;
+    private Iterator<Row> unmatched;
+
+    private Row probeRow;
+    private List<Row> candidates = Collections.emptyList();
+    private int candidate;
+    private boolean probeMatched;
+    private Row next;
+
+    // Residual conditions are the non-equality ON conjuncts, oriented left to right on bare column names.
+    HashJoin(JoinedRow.Schema schema, List<Row> left, List<Row> right, String[] leftKeys, String[] rightKeys,
+             List<JoinCondition> residual, boolean leftOuter, boolean buildLeft) {
+        this.schema = schema;
+        this.buildLeft = buildLeft;
+        this.leftOuter = leftOuter;
+        this.residual = residual;
+        this.probeKeys = buildLeft ? rightKeys : leftKeys;
+        this.matched = buildLeft && leftOuter ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+
+        String[] buildKeys = buildLeft ? leftKeys : rightKeys;
+        List<Row> build = buildLeft ? left : right;
+        this.buildNumbers = new boolean[buildKeys.length];
+        this.buildText = new boolean[buildKeys.length];
+        Object[] values = new Object[buildKeys.length];
+        for (Row row : build) {
+            if (row.isDeleted() || !read(row, buildKeys, values)) {
+                continue;
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] instanceof Number) {
+                    buildNumbers[i] = true;
+                } else {
+                    buildText[i] = true;
+                }
+            }
+            table.computeIfAbsent(keyOf(values), k -> new ArrayList<>(1)).add(row);
+        }
+        this.probe = (buildLeft ? right : left).iterator();
+        this.unmatched = matched == null ? null : build.iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    private Row advance() {
+        while (true) {
+            while (candidate < candidates.size()) {
+                Row built = candidates.get(candidate++);
+                Row leftRow = buildLeft ? built : probeRow;
+                Row rightRow = buildLeft ? probeRow : built;
+                if (matchesResidual(residual, leftRow, rightRow)) {
+                    probeMatched = true;
+                    if (matched != null) {
+                        matched.add(built);
+                    }
+                    return new JoinedRow(schema, leftRow, rightRow);
+                }
+            }
+            if (probeRow != null && !probeMatched && leftOuter && !buildLeft) {
+                Row leftRow = probeRow;
+                probeRow = null;
+                return new JoinedRow(schema, leftRow, null);
+            }
+            if (!probe.hasNext()) {
+                return unmatchedLeft();
+            }
+            probeRow = probe.next();
+            probeMatched = false;
+            candidate = 0;
+            if (probeRow.isDeleted()) {
+                probeRow = null;
+                candidates = Collections.emptyList();
+                continue;
+            }
+            candidates = candidatesFor(probeRow);
+        }
+    }
+
+    // Once the probe side is exhausted, a LEFT JOIN built on the left emits the left rows nothing matched.
+    private Row unmatchedLeft() {
+        while (unmatched != null && unmatched.hasNext()) {
+            Row row = unmatched.next();
+            if (!row.isDeleted() && !matched.contains(row)) {
+                return new JoinedRow(schema, row, null);
+            }
+        }
+        return null;
+    }
+
+    static boolean matchesResidual(List<JoinCondition> residual, Row left, Row right) {
+        for (JoinCondition condition : residual) {
+            if (!condition.test(left.get(condition.getLeftColumn()), right.get(condition.getRightColumn()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // JoinCondition.test compares two numbers by value and anything else by its text, so a number also meets text
+    // spelling it and numeric text also meets the number it spells; each such column doubles the keys probed.
+    private List<Row> candidatesFor(Row row) {
+        Object[] values = new Object[probeKeys.length];
+        if (!read(row, probeKeys, values)) {
+            return Collections.emptyList();
+        }
+        Object[] alternatives = null;
+        for (int i = 0; i < values.length; i++) {
+            Object alternative = alternative(values[i], i);
+            if (alternative != null) {
+                if (alternatives == null) {
+                    alternatives = new Object[values.length];
+                }
+                alternatives[i] = alternative;
+            }
+        }
+        if (alternatives == null) {
+            List<Row> found = table.get(keyOf(values));
+            return found == null ? Collections.emptyList() : found;
+        }
+        List<Row> found = new ArrayList<>();
+        collect(values, alternatives, 0, found);
+        return found;
+    }
+
+    // Looks up every combination of each column's value and its alternative form, if it has one.
+    private void collect(Object[] values, Object[] alternatives, int column, List<Row> found) {
+        if (column == values.length) {
+            List<Row> bucket = table.get(keyOf(values));
+            if (bucket != null) {
+                found.addAll(bucket);
+            }
+            return;
+        }
+        collect(values, alternatives, column + 1, found);
+        if (alternatives[column] != null) {
+            Object value = values[column];
+            values[column] = alternatives[column];
+            collect(values, alternatives, column + 1, found);
+            values[column] = value;
+        }
+    }
+
+    // The other form of a probe value that a build row of the other type could equal, or null.
+    private Object alternative(Object value, int column) {
+        if (value instanceof Number) {
+            return buildText[column] ? value.toString() : null;
+        }
+        if (!buildNumbers[column]) {
+            return null;
+        }
+        String text = value.toString();
+        try {
+            double number = Double.parseDouble(text);
+            return Double.toString(number).equals(text) ? number : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // False if any key column is null, since a null never matches.
+    private static boolean read(Row row, String[] columns, Object[] values) {
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = row.get(columns[i]);
+            if (values[i] == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Numbers hash by value and anything else by its text. Boxed doubles are equal exactly when Double.compare
+    // finds them so, as for "=": -0.0 and 0.0 differ, and NaN meets NaN.
+    private static Object keyOf(Object[] values) {
+        if (values.length == 1) {
+            return normalize(values[0]);
+        }
+        Object[] key = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            key[i] = normalize(values[i]);
+        }
+        return Arrays.asList(key);
+    }
+
+    private static Object normalize(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return value.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package engine;
+
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// A pair of rows from a join, read through column names qualified with a table alias ("s.name").
+// An unqualified name resolves to the left table if it has such a column, otherwise to the right one.
+class JoinedRow extends Row {
+    static final class Schema {
+        private final String leftAlias;
+        private final String rightAlias;
+        private final Set<String> leftColumns;
+        private final Set<String> columns = new LinkedHashSet<>();
+
+        Schema(String leftAlias, List<String> leftColumns, String rightAlias, List<String> rightColumns) {
+            this.leftAlias = leftAlias;
+            this.rightAlias = rightAlias;
+            this.leftColumns = new HashSet<>(leftColumns);
+            for (String column : leftColumns) {
+                columns.add(leftAlias + "." + column);
+            }
+            for (String column : rightColumns) {
+                columns.add(rightAlias + "." + column);
+            }
+        }
+
+        // The qualified columns of both tables, left first, as SELECT * returns them.
+        List<String> getColumns() {
+            return new ArrayList<>(columns);
+        }
+    }
+
+    private final Schema schema;
+    private final Row left;
+    private final Row right;
+
+    // A null right row is the missing side of a LEFT JOIN; all of its columns read as null.
+    JoinedRow(Schema schema, Row left, Row right) {
+        super((Void) null);
+        this.schema = schema;
+        this.left = left;
+        this.right = right;
+    }
+
+    @Override
+    public void put(String column, Object value) {
+        throw new UnsupportedOperationException("Joined rows are read-only");
+    }
+
+    @Override
+    public Object get(String column) {
+        int dot = column.indexOf('.');
+        if (dot > 0) {
+            String alias = column.substring(0, dot);
+            if (alias.equals(schema.leftAlias)) {
+                return left.get(column.substring(dot + 1));
+            }
+            if (alias.equals(schema.rightAlias)) {
+                return right == null ? null : right.get(column.substring(dot + 1));
+            }
+        }
+        if (schema.leftColumns.contains(column)) {
+            return left.get(column);
+        }
+        return right == null ? null : right.get(column);
+    }
+
+    @Override
+    public Set<String> getColumns() {
+        return Collections.unmodifiableSet(schema.columns);
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String column : schema.columns) {
+            data.put(column, get(column));
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return getData().toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,190 @@
+package engine;
+
+import model.Row;
+import storage.IoCounters;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+
+// Counters for one engine, cheap enough to keep on: a statement costs a map lookup and a few atomic adds, scans
+// add their row counts once per statement, and storage counts bytes once per file operation.
+public class Metrics implements MetricsMXBean {
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final ClassValue<String> STATEMENT_TYPES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return statementType(type.getSimpleName());
+        }
+    };
+
+    private final Map<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+    private final LongAdder rowsScanned = new LongAdder();
+    private final LongAdder rowsReturned = new LongAdder();
+    private final LongAdder tableLoads = new LongAdder();
+    private final LongAdder tableReloads = new LongAdder();
+    // Tables loaded at least once, so a load after an eviction counts as a reload.
+    private final Set<String> loadedTables = ConcurrentHashMap.newKeySet();
+    private final IoCounters io;
+
+    Metrics(IoCounters io) {
+        this.io = io;
+    }
+
+    // A command's statement type, e.g. CREATE INDEX for CreateIndexCommand.
+    static String statementType(Object command) {
+        return STATEMENT_TYPES.get(command.getClass());
+    }
+
+    private static String statementType(String name) {
+        if (name.endsWith("Command")) {
+            name = name.substring(0, name.length() - "Command".length());
+        }
+        StringBuilder type = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (i > 0 && Character.isUpperCase(c)) {
+                type.append(' ');
+            }
+            type.append(Character.toUpperCase(c));
+        }
+        return type.toString();
+    }
+
+    void recordStatement(String type, long nanos, long rows, boolean failed) {
+        StatementMetrics metrics = statements.get(type);
+        if (metrics == null) {
+            metrics = statements.computeIfAbsent(type, t -> new StatementMetrics());
+        }
+        metrics.latency.record(nanos);
+        if (failed) {
+            metrics.errors.increment();
+        }
+        if (rows > 0) {
+            rowsReturned.add(rows);
+        }
+    }
+
+    void rowsScanned(long rows) {
+        rowsScanned.add(rows);
+    }
+
+    void tableLoaded(String tableName) {
+        tableLoads.increment();
+        if (!loadedTables.add(tableName)) {
+            tableReloads.increment();
+        }
+    }
+
+    // One row per statement type with its count, errors and latency percentiles, then one per counter.
+    public List<Row> getRows() {
+        List<Row> rows = new ArrayList<>();
+        for (Map.Entry<String, StatementMetrics> entry : new TreeMap<>(statements).entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            Row row = new Row();
+            row.put("name", entry.getKey());
+            row.put("count", (double) latency.getCount());
+            row.put("errors", (double) entry.getValue().errors.sum());
+            row.put("p50_ms", millis(latency.getPercentile(0.5)));
+            row.put("p99_ms", millis(latency.getPercentile(0.99)));
+            row.put("max_ms", millis(latency.getMax()));
+            rows.add(row);
+        }
+        addCounter(rows, "rows scanned", getRowsScanned());
+        addCounter(rows, "rows returned", getRowsReturned());
+        addCounter(rows, "table loads", getTableLoads());
+        addCounter(rows, "table reloads", getTableReloads());
+        addCounter(rows, "bytes read", getBytesRead());
+        addCounter(rows, "bytes written", getBytesWritten());
+        return rows;
+    }
+
+    private static void addCounter(List<Row> rows, String name, long value) {
+        Row row = new Row();
+        row.put("name", name);
+        row.put("count", (double) value);
+        rows.add(row);
+    }
+
+    @Override
+    public Map<String, Long> getStatementCounts() {
+        return byStatement(metrics -> metrics.latency.getCount());
+    }
+
+    @Override
+    public Map<String, Long> getStatementErrors() {
+        return byStatement(metrics -> metrics.errors.sum());
+    }
+
+    @Override
+    public Map<String, Double> getLatencyP50Millis() {
+        return latencyByStatement(latency -> millis(latency.getPercentile(0.5)));
+    }
+
+    @Override
+    public Map<String, Double> getLatencyP99Millis() {
+        return latencyByStatement(latency -> millis(latency.getPercentile(0.99)));
+    }
+
+    @Override
+    public Map<String, Double> getLatencyMaxMillis() {
+        return latencyByStatement(latency -> millis(latency.getMax()));
+    }
+
+    @Override
+    public long getRowsScanned() {
+        return rowsScanned.sum();
+    }
+
+    @Override
+    public long getRowsReturned() {
+        return rowsReturned.sum();
+    }
+
+    @Override
+    public long getTableLoads() {
+        return tableLoads.sum();
+    }
+
+    @Override
+    public long getTableReloads() {
+        return tableReloads.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return io.getBytesRead();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return io.getBytesWritten();
+    }
+
+    private Map<String, Long> byStatement(ToLongFunction<StatementMetrics> value) {
+        Map<String, Long> values = new TreeMap<>();
+        statements.forEach((type, metrics) -> values.put(type, value.applyAsLong(metrics)));
+        return values;
+    }
+
+    private Map<String, Double> latencyByStatement(ToDoubleFunction<LatencyHistogram> value) {
+        Map<String, Double> values = new TreeMap<>();
+        statements.forEach((type, metrics) -> values.put(type, value.applyAsDouble(metrics.latency)));
+        return values;
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+
+    private static final class StatementMetrics {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package engine;
+
+import java.util.Map;
+
+// The engine's metrics as JMX attributes, under SimpleDatabase:type=Metrics. Per-statement maps are keyed by
+// statement type, e.g. SELECT or CREATE INDEX; latencies are in milliseconds.
+public interface MetricsMXBean {
+    Map<String, Long> getStatementCounts();
+
+    Map<String, Long> getStatementErrors();
+
+    Map<String, Double> getLatencyP50Millis();
+
+    Map<String, Double> getLatencyP99Millis();
+
+    Map<String, Double> getLatencyMaxMillis();
+
+    long getRowsScanned();
+
+    long getRowsReturned();
+
+    long getTableLoads();
+
+    long getTableReloads();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+}
\ No newline at end of file
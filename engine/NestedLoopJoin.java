@@ -0,0 +1,75 @@
+package engine;
+
+import model.Row;
+import parser.JoinCondition;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Fallback for ON clauses without an equality: compares every left row with every right row.
+class NestedLoopJoin implements Iterator<Row> {
+    private final JoinedRow.Schema schema;
+    private final List<Row> left;
+    private final List<Row> right;
+    private final List<JoinCondition> conditions;
+    private final boolean leftOuter;
+    private int leftIndex = -1;
+    private int rightIndex;
+    private boolean leftMatched;
+    private Row next;
+
+    NestedLoopJoin(JoinedRow.Schema schema, List<Row> left, List<Row> right, List<JoinCondition> conditions, boolean leftOuter) {
+        this.schema = schema;
+        this.left = left;
+        this.right = right;
+        this.conditions = conditions;
+        this.leftOuter = leftOuter;
+        this.rightIndex = right.size();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+
+    private Row advance() {
+        while (true) {
+            if (leftIndex >= 0 && leftIndex < left.size()) {
+                Row leftRow = left.get(leftIndex);
+                while (rightIndex < right.size()) {
+                    Row rightRow = right.get(rightIndex++);
+                    if (!rightRow.isDeleted() && HashJoin.matchesResidual(conditions, leftRow, rightRow)) {
+                        leftMatched = true;
+                        return new JoinedRow(schema, leftRow, rightRow);
+                    }
+                }
+                if (leftOuter && !leftMatched) {
+                    leftMatched = true;
+                    return new JoinedRow(schema, leftRow, null);
+                }
+            }
+            do {
+                leftIndex++;
+            } while (leftIndex < left.size() && left.get(leftIndex).isDeleted());
+            if (leftIndex >= left.size()) {
+                return null;
+            }
+            rightIndex = 0;
+            leftMatched = false;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package engine;
+
+import model.Row;
+import parser.WhereClause;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Supplier;
+
+class ParallelScanner {
+    private static final int MIN_CHUNK_ROWS = 4096;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    interface ChunkFunction<T> {
+        void apply(List<Row> rows, int from, int to, List<T> out);
+    }
+
+    interface RangeAggregation {
+        void add(HashAggregator partial, int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+
+    ParallelScanner(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    List<Row> filter(List<Row> rows, WhereClause where) {
+        return run(rows, (source, from, to, out) -> {
+            for (int i = from; i < to; i++) {
+                Row row = source.get(i);
+                if (!row.isDeleted() && where.matches(row)) {
+                    out.add(row);
+                }
+            }
+        });
+    }
+
+    // Every chunk folds into its own partial aggregate, so workers share no hash table until the final merge.
+    HashAggregator aggregate(List<Row> rows, Supplier<HashAggregator> partials, RangeAggregation aggregation) {
+        List<HashAggregator> chunks = run(rows, (source, from, to, out) -> {
+            HashAggregator partial = partials.get();
+            aggregation.add(partial, from, to);
+            out.add(partial);
+        });
+        HashAggregator merged = chunks.get(0);
+        for (int i = 1; i < chunks.size(); i++) {
+            merged.merge(chunks.get(i));
+        }
+        return merged;
+    }
+
+    void shutdown() {
+        pool.shutdown();
+    }
+
+    private <T> List<T> run(List<Row> rows, ChunkFunction<T> function) {
+        int chunk = Math.max(MIN_CHUNK_ROWS, rows.size() / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        return pool.invoke(new ChunkTask<>(rows, 0, rows.size(), chunk, function));
+    }
+
+    @SuppressWarnings("serial")
+    private static class ChunkTask<T> extends RecursiveTask<List<T>> {
+        private final List<Row> rows;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final ChunkFunction<T> function;
+
+        ChunkTask(List<Row> rows, int from, int to, int chunk, ChunkFunction<T> function) {
+            this.rows = rows;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.function = function;
+        }
+
+        @Override
+        protected List<T> compute() {
+            if (to - from <= chunk) {
+                List<T> out = new ArrayList<>();
+                function.apply(rows, from, to, out);
+                return out;
+            }
+            int mid = (from + to) >>> 1;
+            ChunkTask<T> left = new ChunkTask<>(rows, from, mid, chunk, function);
+            ChunkTask<T> right = new ChunkTask<>(rows, mid, to, chunk, function);
+            left.fork();
+            List<T> tail = right.compute();
+            // Joining left before appending right keeps the merged result in table order.
+            List<T> head = left.join();
+            if (head.isEmpty()) {
+                return tail;
+            }
+            head.addAll(tail);
+            return head;
+        }
+    }
+}
\ No newline at end of file
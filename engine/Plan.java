@@ -0,0 +1,98 @@
+package engine;
+
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// The operators a query ran through, for EXPLAIN: each node carries the planner's row estimate and, once the query
+// has been read to the end, the number of rows it actually produced.
+public class Plan {
+    private Node root;
+
+    Node node(String operation, double estimatedRows, Node... children) {
+        return new Node(operation, estimatedRows, children);
+    }
+
+    void setRoot(Node root) {
+        this.root = root;
+    }
+
+    Node getRoot() {
+        return root;
+    }
+
+    // Reads the query's result to the end, so every node knows how many rows it produced, and returns the plan rows.
+    public List<Row> measure(Result result) {
+        long rows = 0;
+        while (result.next() != null) {
+            rows++;
+        }
+        if (root != null) {
+            root.setActual(rows);
+        }
+        return getRows();
+    }
+
+    // One row per operator, top down, with each child indented under its parent.
+    public List<Row> getRows() {
+        List<Row> rows = new ArrayList<>();
+        if (root != null) {
+            addRows(root, "", rows);
+        }
+        return rows;
+    }
+
+    private static void addRows(Node node, String indent, List<Row> rows) {
+        Row row = new Row();
+        row.put("plan", indent + node.operation);
+        row.put("estimated", (double) Math.round(node.estimated));
+        row.put("actual", node.actual < 0 ? null : (double) node.actual);
+        rows.add(row);
+        for (Node child : node.children) {
+            addRows(child, indent + "  ", rows);
+        }
+    }
+
+    static final class Node {
+        private final String operation;
+        private final double estimated;
+        private final Node[] children;
+        private long actual = -1;
+
+        private Node(String operation, double estimated, Node[] children) {
+            this.operation = operation;
+            this.estimated = estimated;
+            this.children = children;
+        }
+
+        double getEstimatedRows() {
+            return estimated;
+        }
+
+        void setActual(long actual) {
+            this.actual = actual;
+        }
+
+        // Counts the live rows that pass through.
+        Iterator<Row> count(Iterator<Row> rows) {
+            actual = 0;
+            return new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    Row row = rows.next();
+                    if (!row.isDeleted()) {
+                        actual++;
+                    }
+                    return row;
+                }
+            };
+        }
+    }
+}
\ No newline at end of file
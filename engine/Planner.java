@@ -0,0 +1,145 @@
+package engine;
+
+import index.Index;
+import index.IndexType;
+import model.ColumnStatistics;
+import model.Row;
+import model.Table;
+import model.TableStatistics;
+import parser.AndPredicate;
+import parser.Comparison;
+import parser.NotPredicate;
+import parser.Operator;
+import parser.OrPredicate;
+import parser.ParameterComparison;
+import parser.RowPredicate;
+import parser.WhereClause;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Estimates how many rows a predicate keeps and decides between index lookups and a scan. Estimates come from the
+// table's statistics when it has been analyzed, and from each operator's fixed guess otherwise.
+class Planner {
+    // Relative cost of producing one row. An index lookup reaches rows out of order and sorts them back into table
+    // order, a scan reads them in sequence, and a column scan compares packed arrays. Measured on 200k rows, an
+    // index wins below about 4% of a row table and 1% of a columnar one.
+    private static final double INDEX_ROW_COST = 25.0;
+    private static final double SCAN_ROW_COST = 1.0;
+    private static final double COLUMN_SCAN_ROW_COST = 0.25;
+
+    private Planner() {
+    }
+
+    static final class AccessPath {
+        private final Index index;
+        private final Comparison conjunct;
+        private final double estimatedRows;
+        private List<Row> rows;
+
+        private AccessPath(Index index, Comparison conjunct, double estimatedRows) {
+            this.index = index;
+            this.conjunct = conjunct;
+            this.estimatedRows = estimatedRows;
+        }
+
+        double getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        // Fetches the rows matching the indexed conjunct, in table order; false if the index cannot answer it.
+        boolean lookup(Table table) {
+            rows = index.lookup(conjunct.getOperator().getSymbol(), conjunct.getValue(), table.getStoredRows());
+            return rows != null;
+        }
+
+        List<Row> getRows() {
+            return rows;
+        }
+
+        String describe(Table table) {
+            String kind = index.getType() == IndexType.ORDERED ? "Ordered index" : "Hash index";
+            return kind + " lookup on " + table.getName() + "(" + index.getColumn() + "): " + conjunct;
+        }
+    }
+
+    // Index lookups worth trying for the WHERE clause, best first; empty when a scan is expected to be cheaper.
+    // Without statistics every applicable index qualifies, in the order its conjunct appears.
+    static List<AccessPath> indexPaths(Table table, WhereClause where) {
+        List<AccessPath> paths = new ArrayList<>();
+        TableStatistics statistics = table.getStatistics();
+        long rows = table.getRowCount();
+        for (Comparison conjunct : where.getConjuncts()) {
+            for (Index index : table.getIndexes(conjunct.getColumn())) {
+                if (!supports(index, conjunct.getOperator())) {
+                    continue;
+                }
+                double estimate = rows * selectivity(statistics, conjunct);
+                if (statistics != null) {
+                    double scanCost = rows * (table.getColumnStore() != null ? COLUMN_SCAN_ROW_COST : SCAN_ROW_COST);
+                    // A hash index answers != by scanning the table for everything else.
+                    double indexCost = conjunct.getOperator() == Operator.NE ? rows * SCAN_ROW_COST + estimate : estimate * INDEX_ROW_COST;
+                    if (indexCost >= scanCost) {
+                        continue;
+                    }
+                }
+                paths.add(new AccessPath(index, conjunct, estimate));
+            }
+        }
+        if (statistics != null) {
+            paths.sort((left, right) -> Double.compare(left.estimatedRows, right.estimatedRows));
+        }
+        return paths;
+    }
+
+    static double estimateRows(Table table, WhereClause where) {
+        return where == null ? table.getRowCount() : table.getRowCount() * selectivity(table.getStatistics(), where.getPredicate());
+    }
+
+    // The estimated fraction of rows the predicate keeps; conjuncts and disjuncts are treated as independent.
+    static double selectivity(TableStatistics statistics, RowPredicate predicate) {
+        if (statistics == null) {
+            return predicate.selectivity();
+        }
+        if (predicate instanceof Comparison) {
+            Comparison comparison = (Comparison) predicate;
+            ColumnStatistics column = statistics.getColumn(comparison.getColumn());
+            if (column == null || comparison instanceof ParameterComparison) {
+                return comparison.selectivity();
+            }
+            return column.selectivity(comparison.getOperator(), comparison.getValue(), statistics.getRowCount());
+        }
+        if (predicate instanceof NotPredicate) {
+            return 1.0 - selectivity(statistics, ((NotPredicate) predicate).getChild());
+        }
+        if (predicate instanceof AndPredicate) {
+            double kept = 1.0;
+            for (RowPredicate child : ((AndPredicate) predicate).getChildren()) {
+                kept *= selectivity(statistics, child);
+            }
+            return kept;
+        }
+        if (predicate instanceof OrPredicate) {
+            double rejected = 1.0;
+            for (RowPredicate child : ((OrPredicate) predicate).getChildren()) {
+                rejected *= 1.0 - selectivity(statistics, child);
+            }
+            return 1.0 - rejected;
+        }
+        return predicate.selectivity();
+    }
+
+    // Distinct values in a join key column, or -1 if unknown.
+    static double distinctValues(Table table, String column) {
+        TableStatistics statistics = table.getStatistics();
+        ColumnStatistics columnStatistics = statistics == null ? null : statistics.getColumn(column);
+        return columnStatistics == null ? -1 : Math.max(1, columnStatistics.getDistinctCount());
+    }
+
+    private static boolean supports(Index index, Operator operator) {
+        if (index.getType() == IndexType.HASH) {
+            return operator == Operator.EQ || operator == Operator.NE;
+        }
+        return operator == Operator.LT || operator == Operator.LE || operator == Operator.GT || operator == Operator.GE;
+    }
+}
\ No newline at end of file
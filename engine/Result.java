@@ -1,38 +1,103 @@
 package engine;
 
 import model.Row;
+
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
-public class Result {
+// A query result is a cursor: rows are produced on demand, and the locks behind them are held
+// until the last row has been read or close() is called.
+public class Result implements AutoCloseable {
     private final String message;
-    private final List<Row> rows;
     private final boolean isSuccess;
+    private final boolean hasData;
+    private Iterator<Row> cursor;
+    private Runnable onClose;
+    private List<Row> rows;
+    private long rowCount = 0;
 
     public Result(String message, boolean isSuccess) {
         this.message = message;
-        this.rows = null;
         this.isSuccess = isSuccess;
+        this.hasData = false;
     }
 
     public Result(List<Row> rows) {
-        this.rows = rows;
         this.message = rows.size() + " rows in set";
         this.isSuccess = true;
+        this.hasData = true;
+        this.rows = rows;
+        this.cursor = rows.iterator();
+    }
+
+    Result(Iterator<Row> cursor, Runnable onClose) {
+        this.message = null;
+        this.isSuccess = true;
+        this.hasData = true;
+        this.cursor = cursor;
+        this.onClose = onClose;
     }
 
     public String getMessage() {
-        return message;
+        return message != null ? message : rowCount + " rows in set";
+    }
+
+    // Returns the next row, or null once the result is exhausted.
+    public Row next() {
+        if (cursor != null && cursor.hasNext()) {
+            rowCount++;
+            return cursor.next();
+        }
+        close();
+        return null;
     }
 
+    // Drains the cursor into memory.
     public List<Row> getRows() {
+        if (rows == null && hasData) {
+            List<Row> remaining = new ArrayList<>();
+            Row row;
+            while ((row = next()) != null) {
+                remaining.add(row);
+            }
+            rows = remaining;
+        }
         return rows;
     }
 
+    // Rows handed out so far; all of them once a materialized result has been handed over as a list.
+    long getRowCount() {
+        return rows != null ? rows.size() : rowCount;
+    }
+
+    // Runs the action after the result's own cleanup, when it is drained or closed.
+    void onClose(Runnable action) {
+        Runnable release = onClose;
+        onClose = release == null ? action : () -> {
+            try {
+                release.run();
+            } finally {
+                action.run();
+            }
+        };
+    }
+
     public boolean hasData() {
-        return rows != null;
+        return hasData;
     }
 
     public boolean isSuccess() {
         return isSuccess;
     }
+
+    @Override
+    public void close() {
+        cursor = null;
+        if (onClose != null) {
+            Runnable release = onClose;
+            onClose = null;
+            release.run();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package engine;
+
+import model.Row;
+import parser.SortKey;
+
+import java.util.Comparator;
+import java.util.List;
+
+// Orders rows by their sort keys. Nulls sort first and numbers before text, as in SQLite.
+class RowComparator implements Comparator<Row> {
+    private final String[] columns;
+    private final boolean[] descending;
+
+    RowComparator(List<SortKey> keys) {
+        this.columns = new String[keys.size()];
+        this.descending = new boolean[keys.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = keys.get(i).getColumn();
+            descending[i] = keys.get(i).isDescending();
+        }
+    }
+
+    @Override
+    public int compare(Row left, Row right) {
+        for (int i = 0; i < columns.length; i++) {
+            int comparison = compareValues(left.get(columns[i]), right.get(columns[i]));
+            if (comparison != 0) {
+                return descending[i] ? -comparison : comparison;
+            }
+        }
+        return 0;
+    }
+
+    // Reading the keys out once keeps repeated comparisons from going back to the row.
+    Object[] keysOf(Row row) {
+        Object[] keys = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            keys[i] = row.get(columns[i]);
+        }
+        return keys;
+    }
+
+    int compareKeys(Object[] left, Object[] right) {
+        for (int i = 0; i < columns.length; i++) {
+            int comparison = compareValues(left[i], right[i]);
+            if (comparison != 0) {
+                return descending[i] ? -comparison : comparison;
+            }
+        }
+        return 0;
+    }
+
+    static int compareValues(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == null ? (right == null ? 0 : -1) : 1;
+        }
+        boolean leftNumber = left instanceof Number;
+        boolean rightNumber = right instanceof Number;
+        if (leftNumber && rightNumber) {
+            return Double.compare(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        }
+        if (leftNumber || rightNumber) {
+            return leftNumber ? -1 : 1;
+        }
+        return left.toString().compareTo(right.toString());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,67 @@
+package engine;
+
+import model.Row;
+import parser.WhereClause;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+// Filters, applies OFFSET and LIMIT, and projects one row at a time, so a SELECT never copies the table
+// and stops reading its source as soon as the limit is reached.
+class RowCursor implements Iterator<Row> {
+    private final Iterator<Row> source;
+    private final WhereClause where;
+    private final List<String> columns;
+    private long skip;
+    private long remaining;
+    private long examined;
+    private Row next;
+
+    // A null where means the source is already filtered, and null columns that it is already projected;
+    // a negative limit means no limit.
+    RowCursor(Iterator<Row> source, WhereClause where, List<String> columns, long offset, long limit) {
+        this.source = source;
+        this.where = where;
+        this.columns = columns;
+        this.skip = offset;
+        this.remaining = limit < 0 ? Long.MAX_VALUE : limit;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        while (remaining > 0 && source.hasNext()) {
+            Row row = source.next();
+            examined++;
+            if (row.isDeleted() || (where != null && !where.matches(row))) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            remaining--;
+            next = columns == null ? row : DatabaseEngine.project(row, columns);
+            return true;
+        }
+        return false;
+    }
+
+    // Source rows read so far, including those filtered out or skipped.
+    long getExamined() {
+        return examined;
+    }
+
+    @Override
+    public Row next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Row row = next;
+        next = null;
+        return row;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,287 @@
+package engine;
+
+import exception.DatabaseException;
+import model.Row;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+// Sorts rows within a memory budget. Rows are copied into a buffer that is sorted in place; once the
+// buffer outgrows the budget it is written to a temporary file as a sorted run, and the runs are merged
+// as the result is read. Ties keep the order in which rows arrived.
+class RowSorter implements AutoCloseable {
+    private static final long ROW_OVERHEAD_BYTES = 96;
+    private static final long ENTRY_BYTES = 48;
+    private static final int IO_BUFFER_BYTES = 64 * 1024;
+
+    private static final byte NULL = 0;
+    private static final byte NUMBER = 1;
+    private static final byte TEXT = 2;
+
+    private final List<String> columns;
+    private final RowComparator comparator;
+    private final Comparator<Keyed> order;
+    private final long memoryBytes;
+    private final Path directory;
+    private final List<Run> runs = new ArrayList<>();
+
+    // Rows are copied with just these columns, which must include every sort key.
+    RowSorter(List<String> columns, RowComparator comparator, long memoryBytes, Path directory) {
+        this.columns = columns;
+        this.comparator = comparator;
+        this.order = (left, right) -> comparator.compareKeys(left.keys, right.keys);
+        this.memoryBytes = memoryBytes;
+        this.directory = directory;
+    }
+
+    // Keeps only the first n rows in a bounded heap, so a top-N query needs O(n) memory whatever the input size.
+    static List<Row> top(Iterator<Row> source, RowComparator comparator, int n) {
+        if (n == 0) {
+            return Collections.emptyList();
+        }
+        Comparator<Keyed> order = (left, right) -> {
+            int comparison = comparator.compareKeys(left.keys, right.keys);
+            return comparison != 0 ? comparison : Long.compare(left.ordinal, right.ordinal);
+        };
+        PriorityQueue<Keyed> heap = new PriorityQueue<>(order.reversed());
+        long ordinal = 0;
+        while (source.hasNext()) {
+            Row row = source.next();
+            Object[] keys = comparator.keysOf(row);
+            if (heap.size() < n) {
+                heap.add(new Keyed(keys, row, ordinal));
+            } else if (comparator.compareKeys(keys, heap.peek().keys) < 0) {
+                // A tie never displaces the current worst row, which arrived earlier.
+                heap.poll();
+                heap.add(new Keyed(keys, row, ordinal));
+            }
+            ordinal++;
+        }
+        List<Row> rows = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            rows.add(heap.poll().row);
+        }
+        Collections.reverse(rows);
+        return rows;
+    }
+
+    Iterator<Row> sort(Iterator<Row> source) throws DatabaseException {
+        List<Keyed> buffer = new ArrayList<>();
+        long bufferedBytes = 0;
+        while (source.hasNext()) {
+            Row row = DatabaseEngine.project(source.next(), columns);
+            buffer.add(new Keyed(comparator.keysOf(row), row, 0));
+            bufferedBytes += estimateBytes(row);
+            if (bufferedBytes > memoryBytes) {
+                spill(buffer);
+                buffer.clear();
+                bufferedBytes = 0;
+            }
+        }
+        if (runs.isEmpty()) {
+            // List.sort is stable, so ties stay in arrival order.
+            buffer.sort(order);
+            Iterator<Keyed> sorted = buffer.iterator();
+            return new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return sorted.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    return sorted.next().row;
+                }
+            };
+        }
+        if (!buffer.isEmpty()) {
+            spill(buffer);
+        }
+        return merge();
+    }
+
+    @Override
+    public void close() {
+        for (Run run : runs) {
+            run.close();
+        }
+        runs.clear();
+    }
+
+    private long estimateBytes(Row row) {
+        long bytes = ROW_OVERHEAD_BYTES;
+        for (String column : columns) {
+            Object value = row.get(column);
+            bytes += ENTRY_BYTES + (value instanceof String ? ((String) value).length() : 0);
+        }
+        return bytes;
+    }
+
+    private void spill(List<Keyed> buffer) throws DatabaseException {
+        buffer.sort(order);
+        Path file = null;
+        try {
+            file = directory == null ? Files.createTempFile("sort-", ".run") : Files.createTempFile(directory, "sort-", ".run");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), IO_BUFFER_BYTES))) {
+                for (Keyed entry : buffer) {
+                    for (String column : columns) {
+                        writeValue(out, entry.row.get(column));
+                    }
+                }
+            }
+            runs.add(new Run(file, buffer.size()));
+        } catch (IOException e) {
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignored) {
+                    // the original failure is reported
+                }
+            }
+            close();
+            throw new DatabaseException("Could not write sort run: " + e.getMessage());
+        }
+    }
+
+    private Iterator<Row> merge() throws DatabaseException {
+        // Ties go to the earlier run, which holds the earlier rows.
+        PriorityQueue<Run> heads = new PriorityQueue<>((left, right) -> {
+            int comparison = comparator.compareKeys(left.headKeys, right.headKeys);
+            return comparison != 0 ? comparison : Integer.compare(left.index, right.index);
+        });
+        try {
+            for (int i = 0; i < runs.size(); i++) {
+                Run run = runs.get(i);
+                run.open(i);
+                if (run.advance()) {
+                    heads.add(run);
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new DatabaseException("Could not read sort run: " + e.getMessage());
+        }
+        return new Iterator<Row>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public Row next() {
+                Run run = heads.poll();
+                if (run == null) {
+                    throw new NoSuchElementException();
+                }
+                Row row = run.head;
+                try {
+                    if (run.advance()) {
+                        heads.add(run);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Could not read sort run", e);
+                }
+                return row;
+            }
+        };
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof Number) {
+            out.writeByte(NUMBER);
+            out.writeDouble(((Number) value).doubleValue());
+        } else {
+            byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(TEXT);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        if (type == NUMBER) {
+            return in.readDouble();
+        }
+        if (type == TEXT) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static final class Keyed {
+        private final Object[] keys;
+        private final Row row;
+        private final long ordinal;
+
+        Keyed(Object[] keys, Row row, long ordinal) {
+            this.keys = keys;
+            this.row = row;
+            this.ordinal = ordinal;
+        }
+    }
+
+    private final class Run {
+        private final Path file;
+        private long remaining;
+        private int index;
+        private DataInputStream in;
+        private Row head;
+        private Object[] headKeys;
+
+        Run(Path file, long rows) {
+            this.file = file;
+            this.remaining = rows;
+        }
+
+        void open(int index) throws IOException {
+            this.index = index;
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), IO_BUFFER_BYTES));
+        }
+
+        boolean advance() throws IOException {
+            if (remaining == 0) {
+                head = null;
+                headKeys = null;
+                return false;
+            }
+            remaining--;
+            Row row = new Row();
+            for (String column : columns) {
+                row.put(column, readValue(in));
+            }
+            head = row;
+            headKeys = comparator.keysOf(row);
+            return true;
+        }
+
+        void close() {
+            try {
+                if (in != null) {
+                    in.close();
+                }
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // a leftover temporary file is harmless
+            }
+        }
+    }
+}
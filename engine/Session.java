@@ -0,0 +1,75 @@
+package engine;
+
+import command.Command;
+import exception.DatabaseException;
+
+public class Session {
+    private final DatabaseEngine engine;
+    private Transaction transaction;
+
+    public Session(DatabaseEngine engine) {
+        this.engine = engine;
+    }
+
+    public DatabaseEngine getEngine() {
+        return engine;
+    }
+
+    public Transaction getTransaction() {
+        return transaction;
+    }
+
+    // Runs the command and records its latency, up to the moment its result is drained or closed.
+    public Result execute(Command command) throws DatabaseException {
+        String type = Metrics.statementType(command);
+        Metrics metrics = engine.getMetrics();
+        long start = System.nanoTime();
+        Result result;
+        try {
+            result = command.execute(this);
+        } catch (DatabaseException | RuntimeException e) {
+            metrics.recordStatement(type, System.nanoTime() - start, 0, true);
+            throw e;
+        }
+        if (result.hasData()) {
+            result.onClose(() -> metrics.recordStatement(type, System.nanoTime() - start, result.getRowCount(), false));
+        } else {
+            metrics.recordStatement(type, System.nanoTime() - start, 0, !result.isSuccess());
+        }
+        return result;
+    }
+
+    public Result begin() throws DatabaseException {
+        if (transaction != null) {
+            throw new DatabaseException("A transaction is already in progress.");
+        }
+        transaction = new Transaction();
+        return new Result("Transaction started", true);
+    }
+
+    public Result commit() throws DatabaseException {
+        if (transaction == null) {
+            throw new DatabaseException("No transaction in progress.");
+        }
+        Transaction committing = transaction;
+        transaction = null;
+        engine.commit(committing);
+        return new Result("Transaction committed", true);
+    }
+
+    public Result rollback() throws DatabaseException {
+        if (transaction == null) {
+            throw new DatabaseException("No transaction in progress.");
+        }
+        Transaction rolledBack = transaction;
+        transaction = null;
+        engine.rollback(rolledBack);
+        return new Result("Transaction rolled back", true);
+    }
+
+    public void close() throws DatabaseException {
+        if (transaction != null) {
+            rollback();
+        }
+    }
+}
\ No newline at end of file
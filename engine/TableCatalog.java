@@ -0,0 +1,217 @@
+package engine;
+
+import exception.DatabaseException;
+import model.Table;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class TableCatalog {
+    public interface TableLoader {
+        Table load(String tableName) throws DatabaseException;
+    }
+
+    public interface TableWriter {
+        void write(Table table) throws DatabaseException;
+    }
+
+    private final long memoryBudget;
+    private final TableLoader loader;
+    private final TableWriter writer;
+    // Guards the maps below and nothing else: tables are loaded and written out after letting go of it, so one slow
+    // table never stalls sessions on the others. Explicit rather than a monitor, so virtual threads do not pin
+    // their carrier while waiting.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Table> tables = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Table, Integer> pins = new HashMap<>();
+    // Tables being loaded, or evicted and not yet written out; acquiring one waits for that to finish.
+    private final Map<String, CompletableFuture<Void>> busy = new HashMap<>();
+
+    public TableCatalog(long memoryBudget, TableLoader loader, TableWriter writer) {
+        this.memoryBudget = memoryBudget;
+        this.loader = loader;
+        this.writer = writer;
+    }
+
+    // Returns the table pinned; every acquire must be paired with a release.
+    public Table acquire(String tableName) throws DatabaseException {
+        Table table = pinResident(tableName);
+        try {
+            evictIfNeeded();
+        } catch (DatabaseException | RuntimeException e) {
+            release(table);
+            throw e;
+        }
+        return table;
+    }
+
+    public void release(Table table) {
+        unpin(table);
+    }
+
+    // Pinned tables are in use by a statement or hold uncommitted changes, and are never evicted.
+    public void pin(Table table) {
+        lock.lock();
+        try {
+            pins.merge(table, 1, Integer::sum);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void unpin(Table table) {
+        lock.lock();
+        try {
+            pins.computeIfPresent(table, (t, count) -> count > 1 ? count - 1 : null);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Table> getResidentTables() {
+        lock.lock();
+        try {
+            return new ArrayList<>(tables.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.lock();
+        try {
+            return residentBytes();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Only called once sessions have stopped, so it writes without the tables' locks.
+    public void flushAll() throws DatabaseException {
+        for (Table table : getResidentTables()) {
+            if (table.isDirty()) {
+                writer.write(table);
+            }
+        }
+    }
+
+    // Loads the table unless it is resident, with one session loading while the others wait for it. A failed load
+    // is retried by whoever waited on it.
+    private Table pinResident(String tableName) throws DatabaseException {
+        while (true) {
+            CompletableFuture<Void> pending;
+            boolean load;
+            lock.lock();
+            try {
+                Table table = tables.get(tableName);
+                if (table != null) {
+                    pins.merge(table, 1, Integer::sum);
+                    return table;
+                }
+                pending = busy.get(tableName);
+                load = pending == null;
+                if (load) {
+                    pending = new CompletableFuture<>();
+                    busy.put(tableName, pending);
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (!load) {
+                pending.join();
+                continue;
+            }
+            Table table = null;
+            try {
+                table = loader.load(tableName);
+            } finally {
+                lock.lock();
+                try {
+                    busy.remove(tableName);
+                    if (table != null) {
+                        tables.put(tableName, table);
+                        pins.merge(table, 1, Integer::sum);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                pending.complete(null);
+            }
+            return table;
+        }
+    }
+
+    // Drops unpinned tables, least recently used first, until the rest fit the budget. Dirty ones are written out
+    // afterwards under their own write lock, which no statement holds on an unpinned table.
+    private void evictIfNeeded() throws DatabaseException {
+        List<Table> victims = new ArrayList<>();
+        lock.lock();
+        try {
+            long total = residentBytes();
+            Iterator<Map.Entry<String, Table>> it = tables.entrySet().iterator();
+            while (total > memoryBudget && it.hasNext()) {
+                Table candidate = it.next().getValue();
+                if (pins.containsKey(candidate)) {
+                    continue;
+                }
+                total -= candidate.getEstimatedBytes();
+                it.remove();
+                victims.add(candidate);
+                busy.put(candidate.getName(), new CompletableFuture<>());
+            }
+        } finally {
+            lock.unlock();
+        }
+        DatabaseException failure = null;
+        for (Table victim : victims) {
+            boolean written = false;
+            try {
+                writeOut(victim);
+                written = true;
+            } catch (DatabaseException e) {
+                failure = e;
+            } finally {
+                lock.lock();
+                try {
+                    // A table that could not be written stays resident, so its changes are not lost.
+                    if (!written) {
+                        tables.put(victim.getName(), victim);
+                    }
+                    busy.remove(victim.getName()).complete(null);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void writeOut(Table table) throws DatabaseException {
+        Lock writeLock = table.getLock().writeLock();
+        writeLock.lock();
+        try {
+            if (table.isDirty()) {
+                writer.write(table);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private long residentBytes() {
+        long total = 0;
+        for (Table table : tables.values()) {
+            total += table.getEstimatedBytes();
+        }
+        return total;
+    }
+}
\ No newline at end of file
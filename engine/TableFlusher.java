@@ -0,0 +1,50 @@
+package engine;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Runs the engine's flush pass on its own thread, every interval and whenever a statement asks for one early.
+// Requests that arrive before the pass starts share it, so a burst of writes to a table costs one write of its file.
+class TableFlusher {
+    private final ScheduledExecutorService executor;
+    private final Runnable pass;
+    private final AtomicBoolean requested = new AtomicBoolean();
+
+    TableFlusher(long intervalMillis, Runnable pass) {
+        this.pass = pass;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::run, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void request() {
+        if (requested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                // shutting down; the engine writes dirty tables itself
+            }
+        }
+    }
+
+    // Waits for a running pass; the caller writes whatever is still dirty.
+    void shutdown(long timeoutMillis) {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        requested.set(false);
+        pass.run();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package engine;
+
+import model.Table;
+import storage.WriteAheadLog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class Transaction {
+    interface UndoAction {
+        void undo();
+    }
+
+    private final List<WriteAheadLog.Record> records = new ArrayList<>();
+    private final List<UndoAction> undoLog = new ArrayList<>();
+    // Row sequence counters at first write, restored on rollback so replayed logs assign the same sequences.
+    private final Map<Table, Long> tables = new LinkedHashMap<>();
+
+    boolean holds(Table table) {
+        return tables.containsKey(table);
+    }
+
+    void touch(Table table) {
+        tables.put(table, table.getNextRowSequence());
+    }
+
+    void addRecord(WriteAheadLog.Record record) {
+        records.add(record);
+    }
+
+    void addUndo(UndoAction action) {
+        undoLog.add(action);
+    }
+
+    List<WriteAheadLog.Record> getRecords() {
+        return records;
+    }
+
+    Set<Table> getTables() {
+        return tables.keySet();
+    }
+
+    void undo() {
+        for (int i = undoLog.size() - 1; i >= 0; i--) {
+            undoLog.get(i).undo();
+        }
+        for (Map.Entry<Table, Long> entry : tables.entrySet()) {
+            entry.getKey().setNextRowSequence(entry.getValue());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package index;
+
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class HashIndex implements Index {
+    private final String column;
+    // Values are either a single Row or a LinkedHashSet<Row>, so unique keys cost one map entry.
+    private final Map<Object, Object> buckets = new HashMap<>();
+
+    public HashIndex(String column) {
+        this.column = column;
+    }
+
+    @Override
+    public String getColumn() {
+        return column;
+    }
+
+    @Override
+    public IndexType getType() {
+        return IndexType.HASH;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void add(Row row, Object value) {
+        if (value == null) {
+            return;
+        }
+        Object key = keyOf(value);
+        Object existing = buckets.putIfAbsent(key, row);
+        if (existing == null || existing == row) {
+            return;
+        }
+        if (existing instanceof Row) {
+            Set<Row> bucket = new LinkedHashSet<>();
+            bucket.add((Row) existing);
+            bucket.add(row);
+            buckets.put(key, bucket);
+        } else {
+            ((Set<Row>) existing).add(row);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void remove(Row row, Object value) {
+        if (value == null) {
+            return;
+        }
+        Object key = keyOf(value);
+        Object existing = buckets.get(key);
+        if (existing == row) {
+            buckets.remove(key);
+        } else if (existing instanceof Set) {
+            Set<Row> bucket = (Set<Row>) existing;
+            bucket.remove(row);
+            if (bucket.size() == 1) {
+                buckets.put(key, bucket.iterator().next());
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        buckets.clear();
+    }
+
+    @Override
+    public List<Row> lookup(String operator, Object value, List<Row> tableRows) {
+        switch (operator) {
+            case "=": {
+                List<Row> matches = new ArrayList<>();
+                for (Object key : probeKeys(value)) {
+                    addBucket(buckets.get(key), matches);
+                }
+                if (matches.size() > 1) {
+                    matches.sort(Comparator.comparingLong(Row::getSequence));
+                }
+                return matches;
+            }
+            case "!=": {
+                List<Row> excluded = new ArrayList<>();
+                for (Object key : probeKeys(value)) {
+                    addBucket(buckets.get(key), excluded);
+                }
+                Set<Row> skip = Collections.newSetFromMap(new IdentityHashMap<>());
+                skip.addAll(excluded);
+                List<Row> matches = new ArrayList<>();
+                for (Row row : tableRows) {
+                    if (!row.isDeleted() && row.get(column) != null && !skip.contains(row)) {
+                        matches.add(row);
+                    }
+                }
+                return matches;
+            }
+            default:
+                return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void addBucket(Object bucket, List<Row> matches) {
+        if (bucket instanceof Row) {
+            matches.add((Row) bucket);
+        } else if (bucket != null) {
+            matches.addAll((Collection<Row>) bucket);
+        }
+    }
+
+    // WhereClause compares two numbers numerically and anything else by its text, so a literal
+    // can match numeric rows by value and string rows by the literal's text form.
+    private static List<Object> probeKeys(Object value) {
+        List<Object> keys = new ArrayList<>(2);
+        if (value instanceof Number) {
+            keys.add(keyOf(value));
+            keys.add(value.toString());
+        } else {
+            String text = value.toString();
+            keys.add(text);
+            try {
+                double d = Double.parseDouble(text);
+                if (Double.toString(d).equals(text)) {
+                    keys.add(d);
+                }
+            } catch (NumberFormatException e) {
+                // not numeric text, so no numeric row can match
+            }
+        }
+        return keys;
+    }
+
+    private static Object keyOf(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return value.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,14 @@
+package index;
+
+import model.Row;
+
+import java.util.List;
+
+public interface Index {
+    String getColumn();
+    IndexType getType();
+    void add(Row row, Object value);
+    void remove(Row row, Object value);
+    void clear();
+    List<Row> lookup(String operator, Object value, List<Row> tableRows);
+}
\ No newline at end of file
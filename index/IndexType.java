@@ -0,0 +1,6 @@
+package index;
+
+public enum IndexType {
+    HASH,
+    ORDERED
+}
\ No newline at end of file
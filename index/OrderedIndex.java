@@ -0,0 +1,137 @@
+package index;
+
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class OrderedIndex implements Index {
+    private final String column;
+    private final TreeMap<Double, Set<Row>> numbers = new TreeMap<>();
+    private final TreeMap<String, Set<Row>> strings = new TreeMap<>();
+
+    public OrderedIndex(String column) {
+        this.column = column;
+    }
+
+    @Override
+    public String getColumn() {
+        return column;
+    }
+
+    @Override
+    public IndexType getType() {
+        return IndexType.ORDERED;
+    }
+
+    @Override
+    public void add(Row row, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            Double key = numericKey((Number) value);
+            if (key != null) {
+                numbers.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(row);
+            }
+        } else {
+            strings.computeIfAbsent(value.toString(), k -> new LinkedHashSet<>()).add(row);
+        }
+    }
+
+    @Override
+    public void remove(Row row, Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number) {
+            Double key = numericKey((Number) value);
+            if (key != null) {
+                removeFrom(numbers, key, row);
+            }
+        } else {
+            removeFrom(strings, value.toString(), row);
+        }
+    }
+
+    @Override
+    public void clear() {
+        numbers.clear();
+        strings.clear();
+    }
+
+    @Override
+    public List<Row> lookup(String operator, Object value, List<Row> tableRows) {
+        if (!isRangeOperator(operator)) {
+            return null;
+        }
+
+        List<Row> matches = new ArrayList<>();
+        if (value instanceof Number) {
+            Double key = numericKey((Number) value);
+            if (key != null) {
+                collect(range(numbers, key, operator), matches);
+            }
+        } else if (!numbers.isEmpty()) {
+            // Numeric rows compare against a string literal by their text form, which this index does not order.
+            return null;
+        }
+        collect(range(strings, value.toString(), operator), matches);
+
+        if (matches.size() > 1) {
+            matches.sort(Comparator.comparingLong(Row::getSequence));
+        }
+        return matches;
+    }
+
+    // NaN never satisfies a range comparison, and -0.0 compares equal to 0.0 with primitive operators.
+    private static Double numericKey(Number value) {
+        double d = value.doubleValue();
+        if (Double.isNaN(d)) {
+            return null;
+        }
+        return d == 0.0 ? 0.0 : d;
+    }
+
+    private static <K> void removeFrom(TreeMap<K, Set<Row>> map, K key, Row row) {
+        Set<Row> bucket = map.get(key);
+        if (bucket != null) {
+            bucket.remove(row);
+            if (bucket.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    private static boolean isRangeOperator(String operator) {
+        switch (operator) {
+            case ">":
+            case ">=":
+            case "<":
+            case "<=":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static <K> NavigableMap<K, Set<Row>> range(TreeMap<K, Set<Row>> map, K bound, String operator) {
+        switch (operator) {
+            case ">": return map.tailMap(bound, false);
+            case ">=": return map.tailMap(bound, true);
+            case "<": return map.headMap(bound, false);
+            default: return map.headMap(bound, true);
+        }
+    }
+
+    private static void collect(NavigableMap<?, Set<Row>> range, List<Row> matches) {
+        for (Set<Row> bucket : range.values()) {
+            matches.addAll(bucket);
+        }
+    }
+}
\ No newline at end of file
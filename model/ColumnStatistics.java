@@ -0,0 +1,175 @@
+package model;
+
+import parser.Operator;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// What ANALYZE learned about one column: how many rows hold no value, roughly how many distinct values there are,
+// the smallest and largest value, and an equi-depth histogram of the numbers, so each bucket holds about as many
+// rows as the next and range estimates stay accurate on skewed data.
+public class ColumnStatistics {
+    private static final int SAMPLE_SIZE = 10_000;
+    private static final int BUCKETS = 32;
+
+    private final String column;
+    private final long nullCount;
+    private final long valueCount;
+    private final long numberCount;
+    private final double distinct;
+    private final Object min;
+    private final Object max;
+    // Bucket boundaries; the first and last are the exact numeric minimum and maximum. Null without numbers.
+    private final double[] histogram;
+
+    private ColumnStatistics(String column, long nullCount, long valueCount, long numberCount, double distinct,
+                             Object min, Object max, double[] histogram) {
+        this.column = column;
+        this.nullCount = nullCount;
+        this.valueCount = valueCount;
+        this.numberCount = numberCount;
+        this.distinct = distinct;
+        this.min = min;
+        this.max = max;
+        this.histogram = histogram;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public long getNullCount() {
+        return nullCount;
+    }
+
+    public long getDistinctCount() {
+        return Math.round(Math.min(distinct, valueCount));
+    }
+
+    // Numbers sort before text, as in MIN and MAX.
+    public Object getMin() {
+        return min;
+    }
+
+    public Object getMax() {
+        return max;
+    }
+
+    public int getBucketCount() {
+        return histogram == null ? 0 : histogram.length - 1;
+    }
+
+    // The fraction of rows, out of the given total, whose value satisfies "column <operator> value".
+    public double selectivity(Operator operator, Object value, long rows) {
+        if (rows == 0) {
+            return 0;
+        }
+        double present = (double) valueCount / rows;
+        double distinctValues = Math.max(1.0, Math.min(distinct, valueCount));
+        boolean outside = histogram != null && value instanceof Number
+                && (((Number) value).doubleValue() < histogram[0] || ((Number) value).doubleValue() > histogram[histogram.length - 1]);
+        switch (operator) {
+            case EQ:
+                return outside ? 0 : present / distinctValues;
+            case NE:
+                return outside ? present : present - present / distinctValues;
+            default:
+                if (histogram == null || !(value instanceof Number)) {
+                    return present * operator.getSelectivity();
+                }
+                double below = fractionBelow(((Number) value).doubleValue());
+                double numbers = (double) numberCount / rows;
+                return numbers * (operator == Operator.LT || operator == Operator.LE ? below : 1 - below);
+        }
+    }
+
+    // Each bucket holds the same share of the numbers, and values are assumed to spread evenly within one.
+    private double fractionBelow(double value) {
+        int buckets = histogram.length - 1;
+        if (value <= histogram[0]) {
+            return 0;
+        }
+        if (value > histogram[buckets]) {
+            return 1;
+        }
+        int bucket = 0;
+        while (bucket < buckets - 1 && histogram[bucket + 1] < value) {
+            bucket++;
+        }
+        double low = histogram[bucket];
+        double high = histogram[bucket + 1];
+        double within = high > low ? (Math.min(value, high) - low) / (high - low) : 1;
+        return (bucket + within) / buckets;
+    }
+
+    @Override
+    public String toString() {
+        return column + ": " + nullCount + " nulls, ~" + getDistinctCount() + " distinct, " + min + ".." + max;
+    }
+
+    // Collects one column in a single pass. Numbers for the histogram come from a fixed-size reservoir sample.
+    static final class Builder {
+        private final DistinctSketch sketch = new DistinctSketch();
+        private final double[] sample = new double[SAMPLE_SIZE];
+        private final Random random;
+        private long nulls;
+        private long values;
+        private long numbers;
+        private double numberMin = Double.POSITIVE_INFINITY;
+        private double numberMax = Double.NEGATIVE_INFINITY;
+        private String textMin;
+        private String textMax;
+
+        Builder(String column) {
+            // Seeded by the column, so analyzing the same data twice gives the same histogram.
+            this.random = new Random(column.hashCode());
+        }
+
+        void add(Object value) {
+            if (value == null) {
+                nulls++;
+                return;
+            }
+            values++;
+            sketch.add(value);
+            if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if (number < numberMin) numberMin = number;
+                if (number > numberMax) numberMax = number;
+                if (numbers < SAMPLE_SIZE) {
+                    sample[(int) numbers] = number;
+                } else {
+                    long slot = (long) (random.nextDouble() * (numbers + 1));
+                    if (slot < SAMPLE_SIZE) {
+                        sample[(int) slot] = number;
+                    }
+                }
+                numbers++;
+            } else {
+                String text = value.toString();
+                if (textMin == null || text.compareTo(textMin) < 0) textMin = text;
+                if (textMax == null || text.compareTo(textMax) > 0) textMax = text;
+            }
+        }
+
+        // Rows that lack the column altogether count as nulls.
+        ColumnStatistics build(String column, long rows) {
+            double[] histogram = null;
+            if (numbers > 0) {
+                int sampled = (int) Math.min(numbers, SAMPLE_SIZE);
+                double[] sorted = Arrays.copyOf(sample, sampled);
+                Arrays.sort(sorted);
+                int buckets = Math.min(BUCKETS, sampled);
+                histogram = new double[buckets + 1];
+                for (int i = 0; i <= buckets; i++) {
+                    histogram[i] = sorted[(int) ((long) i * (sampled - 1) / buckets)];
+                }
+                histogram[0] = numberMin;
+                histogram[buckets] = numberMax;
+            }
+            Object min = numbers > 0 ? (Object) numberMin : textMin;
+            Object max = textMax != null ? (Object) textMax : numbers > 0 ? (Object) numberMax : null;
+            return new ColumnStatistics(column, rows - values, values, numbers, sketch.estimate(), min, max, histogram);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class ColumnStore {
+    private final Map<String, ColumnVector> columns = new LinkedHashMap<>();
+    private final Set<String> columnNames = Collections.unmodifiableSet(columns.keySet());
+    private int size;
+
+    public int size() {
+        return size;
+    }
+
+    public Set<String> getColumnNames() {
+        return columnNames;
+    }
+
+    public ColumnVector getColumn(String column) {
+        return columns.get(column);
+    }
+
+    public Object get(int position, String column) {
+        ColumnVector vector = columns.get(column);
+        return vector == null ? null : vector.get(position);
+    }
+
+    public void set(int position, String column, Object value) {
+        vectorFor(column, value).set(position, value);
+    }
+
+    int append(Row row) {
+        for (String column : row.getColumns()) {
+            vectorFor(column, row.get(column));
+        }
+        for (Map.Entry<String, ColumnVector> entry : columns.entrySet()) {
+            entry.getValue().append(row.get(entry.getKey()));
+        }
+        return size++;
+    }
+
+    void compact(boolean[] removed) {
+        for (ColumnVector vector : columns.values()) {
+            vector.compact(removed);
+        }
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!removed[i]) kept++;
+        }
+        size = kept;
+    }
+
+    void clear() {
+        columns.clear();
+        size = 0;
+    }
+
+    private ColumnVector vectorFor(String column, Object value) {
+        ColumnVector vector = columns.get(column);
+        if (vector == null) {
+            vector = newVector(value);
+            for (int i = 0; i < size; i++) {
+                vector.append(null);
+            }
+            columns.put(column, vector);
+        } else if (!vector.accepts(value)) {
+            ColumnVector promoted = vector.hasValues() ? new ObjectColumn() : newVector(value);
+            for (int i = 0; i < vector.size(); i++) {
+                promoted.append(vector.get(i));
+            }
+            columns.put(column, promoted);
+            vector = promoted;
+        }
+        return vector;
+    }
+
+    private static ColumnVector newVector(Object value) {
+        if (value instanceof Double) {
+            return new NumericColumn();
+        }
+        if (value instanceof String) {
+            return new StringColumn();
+        }
+        return value == null ? new NumericColumn() : new ObjectColumn();
+    }
+}
\ No newline at end of file
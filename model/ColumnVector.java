@@ -0,0 +1,29 @@
+package model;
+
+public abstract class ColumnVector {
+    protected static final int INITIAL_CAPACITY = 16;
+
+    protected int size;
+
+    public int size() {
+        return size;
+    }
+
+    public abstract Object get(int position);
+
+    public abstract boolean isNull(int position);
+
+    abstract boolean accepts(Object value);
+
+    abstract void set(int position, Object value);
+
+    abstract void append(Object value);
+
+    abstract void compact(boolean[] removed);
+
+    abstract boolean hasValues();
+
+    protected static int grow(int capacity) {
+        return Math.max(INITIAL_CAPACITY, capacity + (capacity >> 1));
+    }
+}
\ No newline at end of file
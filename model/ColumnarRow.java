@@ -0,0 +1,53 @@
+package model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class ColumnarRow extends Row {
+    private final ColumnStore store;
+    private int position;
+
+    ColumnarRow(ColumnStore store, int position) {
+        super((Void) null);
+        this.store = store;
+        this.position = position;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    void setPosition(int position) {
+        this.position = position;
+    }
+
+    @Override
+    public void put(String column, Object value) {
+        store.set(position, column, value);
+    }
+
+    @Override
+    public Object get(String column) {
+        return store.get(position, column);
+    }
+
+    @Override
+    public Set<String> getColumns() {
+        return store.getColumnNames();
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String column : store.getColumnNames()) {
+            data.put(column, store.get(position, column));
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return getData().toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package model;
+
+// HyperLogLog estimate of how many distinct values a column holds, in a fixed 2 KB whatever the table size.
+// Numbers hash by value, so 1 and 1.0 count once; small counts fall back to linear counting, which is exact enough there.
+public class DistinctSketch {
+    private static final int PRECISION = 11;
+    private static final int REGISTERS = 1 << PRECISION;
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers = new byte[REGISTERS];
+
+    public void add(Object value) {
+        long hash = mix(value instanceof Number
+                ? Double.doubleToLongBits(((Number) value).doubleValue() + 0.0)
+                : value.toString().hashCode() * 0x9E3779B97F4A7C15L);
+        int register = (int) (hash >>> (64 - PRECISION));
+        int rank = Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    public double estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            return REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return estimate;
+    }
+
+    // Finalizer from MurmurHash3, so nearby values land in unrelated registers.
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB93FE53E1A85L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
\ No newline at end of file
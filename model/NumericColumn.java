@@ -0,0 +1,79 @@
+package model;
+
+import java.util.Arrays;
+
+public class NumericColumn extends ColumnVector {
+    private double[] values = new double[INITIAL_CAPACITY];
+    private long[] nulls = new long[1];
+    private int nonNullCount;
+
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    public Object get(int position) {
+        return isNull(position) ? null : values[position];
+    }
+
+    @Override
+    public boolean isNull(int position) {
+        return (nulls[position >>> 6] & (1L << position)) != 0;
+    }
+
+    @Override
+    boolean accepts(Object value) {
+        return value == null || value instanceof Double;
+    }
+
+    @Override
+    void set(int position, Object value) {
+        boolean wasNull = isNull(position);
+        if (value == null) {
+            nulls[position >>> 6] |= 1L << position;
+            if (!wasNull) nonNullCount--;
+        } else {
+            nulls[position >>> 6] &= ~(1L << position);
+            values[position] = (Double) value;
+            if (wasNull) nonNullCount++;
+        }
+    }
+
+    @Override
+    void append(Object value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+        if ((size >>> 6) >= nulls.length) {
+            nulls = Arrays.copyOf(nulls, nulls.length * 2);
+        }
+        nulls[size >>> 6] |= 1L << size;
+        size++;
+        set(size - 1, value);
+    }
+
+    @Override
+    void compact(boolean[] removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                if (!isNull(i)) nonNullCount--;
+                continue;
+            }
+            boolean isNull = isNull(i);
+            values[kept] = values[i];
+            if (isNull) {
+                nulls[kept >>> 6] |= 1L << kept;
+            } else {
+                nulls[kept >>> 6] &= ~(1L << kept);
+            }
+            kept++;
+        }
+        size = kept;
+    }
+
+    @Override
+    boolean hasValues() {
+        return nonNullCount > 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,58 @@
+package model;
+
+import java.util.Arrays;
+
+public class ObjectColumn extends ColumnVector {
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int nonNullCount;
+
+    @Override
+    public Object get(int position) {
+        return values[position];
+    }
+
+    @Override
+    public boolean isNull(int position) {
+        return values[position] == null;
+    }
+
+    @Override
+    boolean accepts(Object value) {
+        return true;
+    }
+
+    @Override
+    void set(int position, Object value) {
+        if (values[position] == null && value != null) nonNullCount++;
+        if (values[position] != null && value == null) nonNullCount--;
+        values[position] = value;
+    }
+
+    @Override
+    void append(Object value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, grow(values.length));
+        }
+        size++;
+        set(size - 1, value);
+    }
+
+    @Override
+    void compact(boolean[] removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                if (values[i] != null) nonNullCount--;
+                continue;
+            }
+            values[kept++] = values[i];
+        }
+        Arrays.fill(values, kept, size, null);
+        size = kept;
+    }
+
+    @Override
+    boolean hasValues() {
+        return nonNullCount > 0;
+    }
+}
\ No newline at end of file
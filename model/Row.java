@@ -6,6 +6,8 @@ import java.util.Set;
 
 public class Row {
     private final Map<String, Object> data;
+    private long sequence;
+    private boolean deleted;
 
     public Row() {
         this.data = new LinkedHashMap<>();
@@ -15,6 +17,10 @@ public class Row {
         this.data = new LinkedHashMap<>(data);
     }
 
+    protected Row(Void view) {
+        this.data = null;
+    }
+
     public void put(String column, Object value) {
         data.put(column, value);
     }
@@ -23,6 +29,22 @@ public class Row {
         return data.get(column);
     }
 
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
     public Set<String> getColumns() {
         return data.keySet();
     }
@@ -0,0 +1,89 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class StringColumn extends ColumnVector {
+    private static final int NULL_CODE = -1;
+
+    private int[] codes = new int[INITIAL_CAPACITY];
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> dictionaryCodes = new HashMap<>();
+    private int nonNullCount;
+
+    public int[] getCodes() {
+        return codes;
+    }
+
+    public List<String> getDictionary() {
+        return dictionary;
+    }
+
+    @Override
+    public Object get(int position) {
+        int code = codes[position];
+        return code == NULL_CODE ? null : dictionary.get(code);
+    }
+
+    @Override
+    public boolean isNull(int position) {
+        return codes[position] == NULL_CODE;
+    }
+
+    @Override
+    boolean accepts(Object value) {
+        return value == null || value instanceof String;
+    }
+
+    @Override
+    void set(int position, Object value) {
+        boolean wasNull = isNull(position);
+        codes[position] = encode((String) value);
+        if (wasNull && value != null) nonNullCount++;
+        if (!wasNull && value == null) nonNullCount--;
+    }
+
+    @Override
+    void append(Object value) {
+        if (size == codes.length) {
+            codes = Arrays.copyOf(codes, grow(codes.length));
+        }
+        codes[size] = NULL_CODE;
+        size++;
+        set(size - 1, value);
+    }
+
+    @Override
+    void compact(boolean[] removed) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (removed[i]) {
+                if (codes[i] != NULL_CODE) nonNullCount--;
+                continue;
+            }
+            codes[kept++] = codes[i];
+        }
+        size = kept;
+    }
+
+    @Override
+    boolean hasValues() {
+        return nonNullCount > 0;
+    }
+
+    private int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = dictionaryCodes.get(value);
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value);
+            dictionaryCodes.put(value, code);
+        }
+        return code;
+    }
+}
\ No newline at end of file
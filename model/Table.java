@@ -1,30 +1,204 @@
 package model;
 
+import index.HashIndex;
+import index.Index;
+import index.IndexType;
+import index.OrderedIndex;
+
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.regex.Pattern;
 
 public class Table {
     private String name;
+    // Deleted rows stay here as tombstones until compact() drops them.
     private List<Row> rows;
+    private int deadRows = 0;
     private int lastId = 0;
+    private long logSequence = 0;
+    private long snapshotSequence = 0;
+    private long nextRowSequence = 0;
+    private final List<Index> indexes = new ArrayList<>();
+    private final ColumnStore columnStore;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Row layout only: how many rows hold each column, in first-seen order, so the schema never needs a table scan.
+    private final Map<String, Integer> columnCounts = new LinkedHashMap<>();
+    private List<String> columns;
+    private volatile TableStatistics statistics;
+    // Rows inserted, updated or deleted since the table was loaded, and how many of those changes the statistics
+    // and the table's file had seen when they were last taken.
+    private long changes = 0;
+    private long analyzedChanges = 0;
+    private long savedChanges = 0;
+    // Approximate heap held by the rows, kept current by every change so the catalog can read it without the lock.
+    private volatile long estimatedBytes = 0;
+    // Row layout only: values held by live rows.
+    private long entries = 0;
     
+    private static final long ROW_OVERHEAD_BYTES = 96;
+    private static final long ENTRY_BYTES = 64;
+    private static final long COLUMNAR_ROW_OVERHEAD_BYTES = 40;
+    private static final long COLUMNAR_ENTRY_BYTES = 9;
     private static final Pattern INT_PATTERN = Pattern.compile("^\\d+(\\.0)?$");
 
     public Table(String name) {
+        this(name, TableLayout.ROW);
+    }
+
+    public Table(String name, TableLayout layout) {
         this.name = name;
         this.rows = new ArrayList<>();
+        this.columnStore = layout == TableLayout.COLUMNAR ? new ColumnStore() : null;
+        this.indexes.add(new HashIndex("id"));
     }
 
     public String getName() {
         return name;
     }
 
+    // The live rows; copies only while tombstones are waiting for compaction.
     public List<Row> getRows() {
+        if (deadRows == 0) {
+            return rows;
+        }
+        List<Row> live = new ArrayList<>(rows.size() - deadRows);
+        for (Row row : rows) {
+            if (!row.isDeleted()) {
+                live.add(row);
+            }
+        }
+        return live;
+    }
+
+    // All stored rows including tombstones, in insertion order; scans must skip rows where isDeleted() is true.
+    public List<Row> getStoredRows() {
         return rows;
     }
 
-    public void insert(Row row) {
+    public int getRowCount() {
+        return rows.size() - deadRows;
+    }
+
+    public int getDeadRowCount() {
+        return deadRows;
+    }
+
+    // The union of all rows' columns, with id first when present.
+    public List<String> getColumns() {
+        if (columnStore != null) {
+            return orderColumns(getRowCount() == 0 ? Collections.emptySet() : columnStore.getColumnNames());
+        }
+        if (columns == null) {
+            columns = orderColumns(columnCounts.keySet());
+        }
+        return columns;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public ReentrantReadWriteLock getLock() {
+        return lock;
+    }
+
+    public TableLayout getLayout() {
+        return columnStore != null ? TableLayout.COLUMNAR : TableLayout.ROW;
+    }
+
+    public ColumnStore getColumnStore() {
+        return columnStore;
+    }
+
+    public long getLogSequence() {
+        return logSequence;
+    }
+
+    public void setLogSequence(long logSequence) {
+        this.logSequence = logSequence;
+    }
+
+    public long getSnapshotSequence() {
+        return snapshotSequence;
+    }
+
+    public void setSnapshotSequence(long snapshotSequence) {
+        this.snapshotSequence = snapshotSequence;
+    }
+
+    public boolean isDirty() {
+        return logSequence > snapshotSequence || changes > savedChanges;
+    }
+
+    public long getUnsavedChanges() {
+        return changes - savedChanges;
+    }
+
+    // Call once the table's file holds everything in memory, including what the log had for it.
+    public void markSaved() {
+        snapshotSequence = logSequence;
+        savedChanges = changes;
+    }
+
+    // Null until the table is first analyzed.
+    public TableStatistics getStatistics() {
+        return statistics;
+    }
+
+    // Needs at least the read lock.
+    public TableStatistics analyze() {
+        TableStatistics collected = TableStatistics.collect(rows, getColumns());
+        statistics = collected;
+        analyzedChanges = changes;
+        return collected;
+    }
+
+    public boolean needsAnalyze(double changedFraction) {
+        if (statistics == null) {
+            return getRowCount() > 0;
+        }
+        long changed = changes - analyzedChanges;
+        return changed > 0 && changed >= Math.max(1, getRowCount()) * changedFraction;
+    }
+
+    public List<Index> getIndexes() {
+        return indexes;
+    }
+
+    public List<Index> getIndexes(String column) {
+        List<Index> matching = new ArrayList<>();
+        for (Index index : indexes) {
+            if (index.getColumn().equals(column)) {
+                matching.add(index);
+            }
+        }
+        return matching;
+    }
+
+    public boolean createIndex(String column, IndexType type) {
+        for (Index existing : indexes) {
+            if (existing.getColumn().equals(column) && existing.getType() == type) {
+                return false;
+            }
+        }
+        Index index = type == IndexType.ORDERED ? new OrderedIndex(column) : new HashIndex(column);
+        for (Row row : rows) {
+            if (!row.isDeleted()) {
+                index.add(row, row.get(column));
+            }
+        }
+        indexes.add(index);
+        return true;
+    }
+
+    public Row insert(Row row) {
         Object existingId = null;
         if (row.getColumns().contains("id")) {
             existingId = row.get("id");
@@ -49,42 +223,264 @@ public class Table {
                 }
             }
         } else {
-            if (rows.isEmpty()) {
+            if (getRowCount() == 0) {
                 lastId = 0;
             }
             lastId++;
             row.put("id", (double) lastId);
         }
 
+        if (columnStore != null) {
+            row = new ColumnarRow(columnStore, columnStore.append(row));
+        } else {
+            addColumns(row);
+        }
+        row.setSequence(nextRowSequence++);
         rows.add(row);
+        changes++;
+        for (Index index : indexes) {
+            index.add(row, row.get(index.getColumn()));
+        }
+        resize();
+        return row;
+    }
+
+    public void insertAll(List<Row> batch) {
+        if (rows instanceof ArrayList) {
+            ((ArrayList<Row>) rows).ensureCapacity(rows.size() + batch.size());
+        }
+        for (Row row : batch) {
+            insert(row);
+        }
+    }
+
+    public void update(Row row, String column, Object value) {
+        Object oldValue = row.get(column);
+        boolean newColumn = columnStore == null && !row.getColumns().contains(column);
+        row.put(column, value);
+        changes++;
+        if (newColumn) {
+            addColumn(column);
+            resize();
+        }
+        for (Index index : indexes) {
+            if (index.getColumn().equals(column)) {
+                index.remove(row, oldValue);
+                index.add(row, value);
+            }
+        }
     }
 
     public void delete(Row row) {
-        rows.remove(row);
-        if (rows.isEmpty()) {
+        deleteRows(Collections.singletonList(row));
+    }
+
+    // Marks the rows deleted without moving anything; their slots are reclaimed by compact().
+    public void deleteRows(List<Row> doomed) {
+        boolean lastIdDeleted = false;
+        for (Row row : doomed) {
+            if (row.isDeleted()) {
+                continue;
+            }
+            row.setDeleted(true);
+            deadRows++;
+            changes++;
+            for (Index index : indexes) {
+                index.remove(row, row.get(index.getColumn()));
+            }
+            if (columnStore == null) {
+                removeColumns(row);
+            }
+            lastIdDeleted |= idOf(row) == lastId;
+        }
+        if (getRowCount() == 0) {
             lastId = 0;
+        } else if (lastIdDeleted) {
+            recalculateLastId();
+        }
+        resize();
+    }
+
+    // Brings back rows deleted since the last compaction, as a rollback does.
+    public void restoreRows(List<Row> restored) {
+        for (Row row : restored) {
+            if (!row.isDeleted()) {
+                continue;
+            }
+            row.setDeleted(false);
+            deadRows--;
+            changes++;
+            for (Index index : indexes) {
+                index.add(row, row.get(index.getColumn()));
+            }
+            if (columnStore == null) {
+                addColumns(row);
+            }
+            lastId = Math.max(lastId, idOf(row));
+        }
+        resize();
+    }
+
+    public boolean needsCompaction(double deadFraction) {
+        return deadRows > 0 && deadRows >= rows.size() * deadFraction;
+    }
+
+    // Drops tombstones. Row sequences are unchanged, so log records that address rows by sequence stay valid.
+    public void compact() {
+        if (deadRows == 0) {
+            return;
+        }
+        List<Row> kept = new ArrayList<>(rows.size() - deadRows);
+        boolean[] removedPositions = columnStore != null ? new boolean[rows.size()] : null;
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            if (row.isDeleted()) {
+                if (removedPositions != null) {
+                    removedPositions[i] = true;
+                }
+            } else {
+                kept.add(row);
+            }
+        }
+        if (columnStore != null) {
+            columnStore.compact(removedPositions);
+            for (int i = 0; i < kept.size(); i++) {
+                ((ColumnarRow) kept.get(i)).setPosition(i);
+            }
+        }
+        rows = kept;
+        deadRows = 0;
+        resize();
+    }
+
+    public long getNextRowSequence() {
+        return nextRowSequence;
+    }
+
+    public void setNextRowSequence(long nextRowSequence) {
+        this.nextRowSequence = nextRowSequence;
+    }
+
+    public Row findBySequence(long sequence) {
+        int low = 0;
+        int high = rows.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midSequence = rows.get(mid).getSequence();
+            if (midSequence < sequence) {
+                low = mid + 1;
+            } else if (midSequence > sequence) {
+                high = mid - 1;
+            } else {
+                Row row = rows.get(mid);
+                return row.isDeleted() ? null : row;
+            }
+        }
+        return null;
+    }
+
+    public void resequence() {
+        nextRowSequence = 0;
+        for (Row row : rows) {
+            row.setSequence(nextRowSequence++);
         }
     }
 
     public void setRows(List<Row> newRows) {
+        if (columnStore != null) {
+            List<Map<String, Object>> data = new ArrayList<>(newRows.size());
+            for (Row row : newRows) {
+                data.add(row.getData());
+            }
+            columnStore.clear();
+            newRows = new ArrayList<>(data.size());
+            for (Map<String, Object> values : data) {
+                Row row = new ColumnarRow(columnStore, columnStore.append(new Row(values)));
+                row.setSequence(nextRowSequence++);
+                newRows.add(row);
+            }
+        }
+        changes += Math.max(getRowCount(), newRows.size());
         this.rows = newRows;
+        this.deadRows = 0;
+        columnCounts.clear();
+        entries = 0;
+        columns = null;
+        if (columnStore == null) {
+            for (Row row : rows) {
+                addColumns(row);
+            }
+        }
+        for (Index index : indexes) {
+            index.clear();
+            for (Row row : rows) {
+                index.add(row, row.get(index.getColumn()));
+            }
+        }
         if (this.rows.isEmpty()) {
             lastId = 0;
         } else {
             recalculateLastId();
         }
+        resize();
     }
 
     private void recalculateLastId() {
         lastId = 0;
         for (Row row : rows) {
-            Object idObj = row.get("id");
-            if (idObj == null) idObj = row.get("ID");
-            
-            if (idObj instanceof Number) {
-                int idVal = ((Number) idObj).intValue();
-                if (idVal > lastId) lastId = idVal;
+            if (!row.isDeleted()) {
+                lastId = Math.max(lastId, idOf(row));
+            }
+        }
+    }
+
+    private static int idOf(Row row) {
+        Object idObj = row.get("id");
+        if (idObj == null) idObj = row.get("ID");
+        return idObj instanceof Number ? ((Number) idObj).intValue() : 0;
+    }
+
+    // Tombstones keep their row overhead until compaction, but no longer count their values.
+    private void resize() {
+        if (columnStore != null) {
+            estimatedBytes = rows.size() * (COLUMNAR_ROW_OVERHEAD_BYTES + COLUMNAR_ENTRY_BYTES * columnStore.getColumnNames().size());
+        } else {
+            estimatedBytes = rows.size() * ROW_OVERHEAD_BYTES + entries * ENTRY_BYTES;
+        }
+    }
+
+    private void addColumns(Row row) {
+        for (String column : row.getColumns()) {
+            addColumn(column);
+        }
+    }
+
+    private void addColumn(String column) {
+        entries++;
+        if (columnCounts.merge(column, 1, Integer::sum) == 1) {
+            columns = null;
+        }
+    }
+
+    private void removeColumns(Row row) {
+        entries -= row.getColumns().size();
+        for (String column : row.getColumns()) {
+            if (columnCounts.computeIfPresent(column, (c, count) -> count > 1 ? count - 1 : null) == null) {
+                columns = null;
+            }
+        }
+    }
+
+    private static List<String> orderColumns(Collection<String> names) {
+        List<String> ordered = new ArrayList<>(names.size());
+        if (names.contains("id")) {
+            ordered.add("id");
+        }
+        for (String name : names) {
+            if (!name.equals("id")) {
+                ordered.add(name);
             }
         }
+        return Collections.unmodifiableList(ordered);
     }
 }
\ No newline at end of file
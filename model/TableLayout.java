@@ -0,0 +1,6 @@
+package model;
+
+public enum TableLayout {
+    ROW,
+    COLUMNAR
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package model;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// A snapshot of a table's statistics as of its last ANALYZE. Estimates are fractions of the row count at that time,
+// so they keep working while the table grows until the next refresh.
+public class TableStatistics {
+    private final long rowCount;
+    private final Map<String, ColumnStatistics> columns;
+
+    private TableStatistics(long rowCount, Map<String, ColumnStatistics> columns) {
+        this.rowCount = rowCount;
+        this.columns = columns;
+    }
+
+    // One pass over the live rows, reading every column of each.
+    public static TableStatistics collect(List<Row> storedRows, List<String> columnNames) {
+        ColumnStatistics.Builder[] builders = new ColumnStatistics.Builder[columnNames.size()];
+        for (int c = 0; c < builders.length; c++) {
+            builders[c] = new ColumnStatistics.Builder(columnNames.get(c));
+        }
+        long rows = 0;
+        for (Row row : storedRows) {
+            if (row.isDeleted()) {
+                continue;
+            }
+            rows++;
+            for (int c = 0; c < builders.length; c++) {
+                builders[c].add(row.get(columnNames.get(c)));
+            }
+        }
+        Map<String, ColumnStatistics> columns = new LinkedHashMap<>();
+        for (int c = 0; c < builders.length; c++) {
+            columns.put(columnNames.get(c), builders[c].build(columnNames.get(c), rows));
+        }
+        return new TableStatistics(rows, Collections.unmodifiableMap(columns));
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    // Null for a column the table did not have when it was analyzed.
+    public ColumnStatistics getColumn(String column) {
+        return columns.get(column);
+    }
+
+    public Map<String, ColumnStatistics> getColumns() {
+        return columns;
+    }
+}
\ No newline at end of file
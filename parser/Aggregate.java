@@ -0,0 +1,34 @@
+package parser;
+
+public class Aggregate {
+    private final AggregateFunction function;
+    private final String column;
+
+    // A null column stands for COUNT(*).
+    public Aggregate(AggregateFunction function, String column) {
+        this.function = function;
+        this.column = column;
+    }
+
+    public AggregateFunction getFunction() {
+        return function;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isCountAll() {
+        return column == null;
+    }
+
+    // The name of the result column, e.g. "COUNT(*)" or "SUM(grade)".
+    public String getLabel() {
+        return function + "(" + (column == null ? "*" : column) + ")";
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package parser;
+
+public enum AggregateFunction {
+    COUNT,
+    SUM,
+    AVG,
+    MIN,
+    MAX;
+
+    public static AggregateFunction fromName(String name) {
+        for (AggregateFunction function : values()) {
+            if (function.name().equalsIgnoreCase(name)) {
+                return function;
+            }
+        }
+        throw new IllegalArgumentException("Unknown aggregate function: " + name);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package parser;
+
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class AndPredicate implements RowPredicate {
+    private final RowPredicate[] children;
+    private final double selectivity;
+    private final double cost;
+
+    public AndPredicate(List<RowPredicate> children) {
+        List<RowPredicate> flattened = new ArrayList<>();
+        for (RowPredicate child : children) {
+            if (child instanceof AndPredicate) {
+                flattened.addAll(((AndPredicate) child).getChildren());
+            } else {
+                flattened.add(child);
+            }
+        }
+        // Cheapest test per row eliminated first, so most rows short-circuit early.
+        flattened.sort(Comparator.comparingDouble(p -> p.cost() / Math.max(1.0 - p.selectivity(), 0.01)));
+        this.children = flattened.toArray(new RowPredicate[0]);
+
+        double s = 1.0;
+        double c = 0.0;
+        for (RowPredicate child : this.children) {
+            c += s * child.cost();
+            s *= child.selectivity();
+        }
+        this.selectivity = s;
+        this.cost = c;
+    }
+
+    public List<RowPredicate> getChildren() {
+        return List.of(children);
+    }
+
+    @Override
+    public boolean test(Row row) {
+        for (RowPredicate child : children) {
+            if (!child.test(row)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public double selectivity() {
+        return selectivity;
+    }
+
+    @Override
+    public double cost() {
+        return cost;
+    }
+
+    @Override
+    public RowPredicate bind(Object[] parameters) {
+        List<RowPredicate> bound = new ArrayList<>(children.length);
+        boolean changed = false;
+        for (RowPredicate child : children) {
+            RowPredicate b = child.bind(parameters);
+            changed |= b != child;
+            bound.add(b);
+        }
+        return changed ? new AndPredicate(bound) : this;
+    }
+
+    @Override
+    public String toString() {
+        return join(children, " AND ");
+    }
+
+    static String join(RowPredicate[] children, String separator) {
+        StringBuilder sb = new StringBuilder("(");
+        for (int i = 0; i < children.length; i++) {
+            if (i > 0) sb.append(separator);
+            sb.append(children[i]);
+        }
+        return sb.append(")").toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package parser;
+
+import model.Row;
+
+public abstract class Comparison implements RowPredicate {
+    protected final String column;
+    protected final Operator operator;
+
+    protected Comparison(String column, Operator operator) {
+        this.column = column;
+        this.operator = operator;
+    }
+
+    public static Comparison of(String column, Operator operator, Object value) {
+        if (value instanceof Parameter) {
+            return new ParameterComparison(column, operator, (Parameter) value);
+        }
+        if (value instanceof Number) {
+            return new NumberComparison(column, operator, ((Number) value).doubleValue());
+        }
+        return new StringComparison(column, operator, value.toString());
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public abstract Object getValue();
+
+    public abstract boolean testValue(Object value);
+
+    @Override
+    public boolean test(Row row) {
+        return testValue(row.get(column));
+    }
+
+    @Override
+    public double selectivity() {
+        return operator.getSelectivity();
+    }
+
+    @Override
+    public String toString() {
+        return column + " " + operator.getSymbol() + " " + getValue();
+    }
+}
\ No newline at end of file
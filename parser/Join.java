@@ -0,0 +1,51 @@
+package parser;
+
+import java.util.List;
+
+public class Join {
+    private final String leftTable;
+    private final String leftAlias;
+    private final String rightTable;
+    private final String rightAlias;
+    private final JoinType type;
+    private final List<JoinCondition> conditions;
+
+    // An alias defaults to the table name; columns are qualified with it, e.g. "s.name".
+    public Join(String leftTable, String leftAlias, String rightTable, String rightAlias, JoinType type, List<JoinCondition> conditions) {
+        this.leftTable = leftTable;
+        this.leftAlias = leftAlias == null ? leftTable : leftAlias;
+        this.rightTable = rightTable;
+        this.rightAlias = rightAlias == null ? rightTable : rightAlias;
+        this.type = type;
+        this.conditions = conditions;
+    }
+
+    public String getLeftTable() {
+        return leftTable;
+    }
+
+    public String getLeftAlias() {
+        return leftAlias;
+    }
+
+    public String getRightTable() {
+        return rightTable;
+    }
+
+    public String getRightAlias() {
+        return rightAlias;
+    }
+
+    public JoinType getType() {
+        return type;
+    }
+
+    public List<JoinCondition> getConditions() {
+        return conditions;
+    }
+
+    @Override
+    public String toString() {
+        return leftTable + " " + leftAlias + " " + type + " JOIN " + rightTable + " " + rightAlias + " ON " + conditions;
+    }
+}
\ No newline at end of file
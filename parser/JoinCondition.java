@@ -0,0 +1,59 @@
+package parser;
+
+// One conjunct of an ON clause, comparing a column of each table.
+public class JoinCondition {
+    private final String leftColumn;
+    private final Operator operator;
+    private final String rightColumn;
+
+    public JoinCondition(String leftColumn, Operator operator, String rightColumn) {
+        this.leftColumn = leftColumn;
+        this.operator = operator;
+        this.rightColumn = rightColumn;
+    }
+
+    public String getLeftColumn() {
+        return leftColumn;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public String getRightColumn() {
+        return rightColumn;
+    }
+
+    public boolean isEquality() {
+        return operator == Operator.EQ;
+    }
+
+    // The same condition with its operands swapped, e.g. b.y > a.x for a.x < b.y.
+    public JoinCondition reversed() {
+        Operator flipped;
+        switch (operator) {
+            case GT: flipped = Operator.LT; break;
+            case LT: flipped = Operator.GT; break;
+            case GE: flipped = Operator.LE; break;
+            case LE: flipped = Operator.GE; break;
+            default: flipped = operator; break;
+        }
+        return new JoinCondition(rightColumn, flipped, leftColumn);
+    }
+
+    // Numbers compare numerically and anything else by its text, as in WHERE; nulls never match.
+    public boolean test(Object left, Object right) {
+        if (left == null || right == null) {
+            return false;
+        }
+        if (left instanceof Number && right instanceof Number) {
+            return operator.test(((Number) left).doubleValue(), ((Number) right).doubleValue());
+        }
+        return operator.test(left.toString().compareTo(right.toString()));
+    }
+
+    @Override
+    public String toString() {
+        return leftColumn + " " + operator.getSymbol() + " " + rightColumn;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,6 @@
+package parser;
+
+public enum JoinType {
+    INNER,
+    LEFT
+}
\ No newline at end of file
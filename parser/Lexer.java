@@ -0,0 +1,155 @@
+package parser;
+
+import exception.DatabaseException;
+
+// Splits a statement into tokens in a single pass over its characters. The lexer holds only the current token, as
+// a kind and a range of the input, so reading a statement allocates nothing until the parser asks for a token's text.
+class Lexer {
+    enum Kind {
+        WORD, STRING, PARAMETER, OPERATOR, STAR, COMMA, LEFT_PAREN, RIGHT_PAREN, SEMICOLON, END
+    }
+
+    private final String text;
+    private int pos;
+
+    private Kind kind;
+    private int start;
+    private int end;
+    private Operator operator;
+    // Set when a string literal contains a doubled quote, which stands for one quote character.
+    private boolean escaped;
+
+    Lexer(String text) throws DatabaseException {
+        this.text = text;
+        advance();
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    // Where the current token starts, counting from 1 as an editor would.
+    int position() {
+        return start + 1;
+    }
+
+    Operator operator() {
+        return operator;
+    }
+
+    String text() {
+        return text.substring(start, end);
+    }
+
+    // The contents of a string literal without its quotes.
+    String string() {
+        String value = text.substring(start + 1, end - 1);
+        if (escaped) {
+            char quote = text.charAt(start);
+            value = value.replace(new String(new char[] {quote, quote}), String.valueOf(quote));
+        }
+        return value;
+    }
+
+    boolean isKeyword(String keyword) {
+        return kind == Kind.WORD && end - start == keyword.length() && text.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    void advance() throws DatabaseException {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+        start = pos;
+        operator = null;
+        escaped = false;
+        if (pos == text.length()) {
+            kind = Kind.END;
+            end = pos;
+            return;
+        }
+        char c = text.charAt(pos++);
+        switch (c) {
+            case '*': kind = Kind.STAR; break;
+            case ',': kind = Kind.COMMA; break;
+            case '(': kind = Kind.LEFT_PAREN; break;
+            case ')': kind = Kind.RIGHT_PAREN; break;
+            case ';': kind = Kind.SEMICOLON; break;
+            case '?': kind = Kind.PARAMETER; break;
+            case '=':
+                kind = Kind.OPERATOR;
+                operator = Operator.EQ;
+                break;
+            case '<':
+                kind = Kind.OPERATOR;
+                operator = accept('=') ? Operator.LE : accept('>') ? Operator.NE : Operator.LT;
+                break;
+            case '>':
+                kind = Kind.OPERATOR;
+                operator = accept('=') ? Operator.GE : Operator.GT;
+                break;
+            case '!':
+                if (!accept('=')) {
+                    throw new DatabaseException("Unexpected '!' at position " + (start + 1) + "; did you mean '!='?");
+                }
+                kind = Kind.OPERATOR;
+                operator = Operator.NE;
+                break;
+            case '\'':
+            case '"':
+                kind = Kind.STRING;
+                readString(c);
+                break;
+            default:
+                kind = Kind.WORD;
+                while (pos < text.length() && !isDelimiter(text.charAt(pos))) {
+                    pos++;
+                }
+                break;
+        }
+        end = pos;
+    }
+
+    private void readString(char quote) throws DatabaseException {
+        while (true) {
+            int close = text.indexOf(quote, pos);
+            if (close < 0) {
+                throw new DatabaseException("Unterminated string starting at position " + (start + 1) + ".");
+            }
+            pos = close + 1;
+            if (pos < text.length() && text.charAt(pos) == quote) {
+                escaped = true;
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean accept(char c) {
+        if (pos < text.length() && text.charAt(pos) == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean isDelimiter(char c) {
+        switch (c) {
+            case '*':
+            case ',':
+            case '(':
+            case ')':
+            case ';':
+            case '?':
+            case '=':
+            case '<':
+            case '>':
+            case '!':
+            case '\'':
+            case '"':
+                return true;
+            default:
+                return Character.isWhitespace(c);
+        }
+    }
+}
\ No newline at end of file
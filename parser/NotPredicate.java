@@ -0,0 +1,41 @@
+package parser;
+
+import model.Row;
+
+public class NotPredicate implements RowPredicate {
+    private final RowPredicate child;
+
+    public NotPredicate(RowPredicate child) {
+        this.child = child;
+    }
+
+    public RowPredicate getChild() {
+        return child;
+    }
+
+    @Override
+    public boolean test(Row row) {
+        return !child.test(row);
+    }
+
+    @Override
+    public double selectivity() {
+        return 1.0 - child.selectivity();
+    }
+
+    @Override
+    public double cost() {
+        return child.cost();
+    }
+
+    @Override
+    public RowPredicate bind(Object[] parameters) {
+        RowPredicate bound = child.bind(parameters);
+        return bound == child ? this : new NotPredicate(bound);
+    }
+
+    @Override
+    public String toString() {
+        return "NOT " + child;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package parser;
+
+public class NumberComparison extends Comparison {
+    private final double literal;
+    private final String literalText;
+
+    public NumberComparison(String column, Operator operator, double literal) {
+        super(column, operator);
+        this.literal = literal;
+        this.literalText = Double.toString(literal);
+    }
+
+    public double getLiteral() {
+        return literal;
+    }
+
+    @Override
+    public Object getValue() {
+        return literal;
+    }
+
+    @Override
+    public boolean testValue(Object value) {
+        if (value == null) return false;
+        if (value instanceof Number) {
+            return operator.test(((Number) value).doubleValue(), literal);
+        }
+        return operator.test(value.toString().compareTo(literalText));
+    }
+
+    @Override
+    public double cost() {
+        return 1.0;
+    }
+}
\ No newline at end of file
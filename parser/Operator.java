@@ -0,0 +1,99 @@
+package parser;
+
+public enum Operator {
+    EQ("=", 0.1) {
+        @Override
+        public boolean test(double left, double right) {
+            return Double.compare(left, right) == 0;
+        }
+
+        @Override
+        public boolean test(int comparison) {
+            return comparison == 0;
+        }
+    },
+    NE("!=", 0.9) {
+        @Override
+        public boolean test(double left, double right) {
+            return Double.compare(left, right) != 0;
+        }
+
+        @Override
+        public boolean test(int comparison) {
+            return comparison != 0;
+        }
+    },
+    GT(">", 0.33) {
+        @Override
+        public boolean test(double left, double right) {
+            return left > right;
+        }
+
+        @Override
+        public boolean test(int comparison) {
+            return comparison > 0;
+        }
+    },
+    LT("<", 0.33) {
+        @Override
+        public boolean test(double left, double right) {
+            return left < right;
+        }
+
+        @Override
+        public boolean test(int comparison) {
+            return comparison < 0;
+        }
+    },
+    GE(">=", 0.33) {
+        @Override
+        public boolean test(double left, double right) {
+            return left >= right;
+        }
+
+        @Override
+        public boolean test(int comparison) {
+            return comparison >= 0;
+        }
+    },
+    LE("<=", 0.33) {
+        @Override
+        public boolean test(double left, double right) {
+            return left <= right;
+        }
+
+        @Override
+        public boolean test(int comparison) {
+            return comparison <= 0;
+        }
+    };
+
+    private final String symbol;
+    private final double selectivity;
+
+    Operator(String symbol, double selectivity) {
+        this.symbol = symbol;
+        this.selectivity = selectivity;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public double getSelectivity() {
+        return selectivity;
+    }
+
+    public abstract boolean test(double left, double right);
+
+    public abstract boolean test(int comparison);
+
+    public static Operator fromSymbol(String symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operator: " + symbol);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package parser;
+
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class OrPredicate implements RowPredicate {
+    private final RowPredicate[] children;
+    private final double selectivity;
+    private final double cost;
+
+    public OrPredicate(List<RowPredicate> children) {
+        List<RowPredicate> flattened = new ArrayList<>();
+        for (RowPredicate child : children) {
+            if (child instanceof OrPredicate) {
+                flattened.addAll(((OrPredicate) child).getChildren());
+            } else {
+                flattened.add(child);
+            }
+        }
+        // Cheapest test per row accepted first, mirroring AndPredicate.
+        flattened.sort(Comparator.comparingDouble(p -> p.cost() / Math.max(p.selectivity(), 0.01)));
+        this.children = flattened.toArray(new RowPredicate[0]);
+
+        double rejected = 1.0;
+        double c = 0.0;
+        for (RowPredicate child : this.children) {
+            c += rejected * child.cost();
+            rejected *= 1.0 - child.selectivity();
+        }
+        this.selectivity = 1.0 - rejected;
+        this.cost = c;
+    }
+
+    public List<RowPredicate> getChildren() {
+        return List.of(children);
+    }
+
+    @Override
+    public boolean test(Row row) {
+        for (RowPredicate child : children) {
+            if (child.test(row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public double selectivity() {
+        return selectivity;
+    }
+
+    @Override
+    public double cost() {
+        return cost;
+    }
+
+    @Override
+    public RowPredicate bind(Object[] parameters) {
+        List<RowPredicate> bound = new ArrayList<>(children.length);
+        boolean changed = false;
+        for (RowPredicate child : children) {
+            RowPredicate b = child.bind(parameters);
+            changed |= b != child;
+            bound.add(b);
+        }
+        return changed ? new OrPredicate(bound) : this;
+    }
+
+    @Override
+    public String toString() {
+        return AndPredicate.join(children, " OR ");
+    }
+}
\ No newline at end of file
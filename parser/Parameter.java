@@ -0,0 +1,29 @@
+package parser;
+
+public class Parameter {
+    private final int index;
+
+    public Parameter(int index) {
+        this.index = index;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public static Object resolve(Object value, Object[] parameters) {
+        if (!(value instanceof Parameter)) {
+            return value;
+        }
+        Object bound = parameters[((Parameter) value).getIndex()];
+        if (bound instanceof Number && !(bound instanceof Double)) {
+            return ((Number) bound).doubleValue();
+        }
+        return bound;
+    }
+
+    @Override
+    public String toString() {
+        return "?";
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package parser;
+
+public class ParameterComparison extends Comparison {
+    private final Parameter parameter;
+
+    public ParameterComparison(String column, Operator operator, Parameter parameter) {
+        super(column, operator);
+        this.parameter = parameter;
+    }
+
+    @Override
+    public Object getValue() {
+        return parameter;
+    }
+
+    @Override
+    public boolean testValue(Object value) {
+        throw new IllegalStateException("Parameter " + (parameter.getIndex() + 1) + " is not bound");
+    }
+
+    @Override
+    public double cost() {
+        return 1.0;
+    }
+
+    @Override
+    public RowPredicate bind(Object[] parameters) {
+        return Comparison.of(column, operator, Parameter.resolve(parameter, parameters));
+    }
+}
\ No newline at end of file
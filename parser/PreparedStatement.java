@@ -0,0 +1,35 @@
+package parser;
+
+import command.Command;
+import exception.DatabaseException;
+
+public class PreparedStatement {
+    private static final Object[] NO_PARAMETERS = new Object[0];
+
+    private final Command template;
+    private final int parameterCount;
+
+    public PreparedStatement(Command template, int parameterCount) {
+        this.template = template;
+        this.parameterCount = parameterCount;
+    }
+
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    public Command bind(Object... parameters) throws DatabaseException {
+        if (parameters == null) {
+            parameters = NO_PARAMETERS;
+        }
+        if (parameters.length != parameterCount) {
+            throw new DatabaseException("Expected " + parameterCount + " parameters but got " + parameters.length + ".");
+        }
+        for (Object parameter : parameters) {
+            if (parameter == null) {
+                throw new DatabaseException("Parameters must not be null.");
+            }
+        }
+        return parameterCount == 0 ? template : template.bind(parameters);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package parser;
+
+import model.Row;
+
+public interface RowPredicate {
+    boolean test(Row row);
+
+    double selectivity();
+
+    double cost();
+
+    default RowPredicate bind(Object[] parameters) {
+        return this;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,24 @@
+package parser;
+
+public class SortKey {
+    private final String column;
+    private final boolean descending;
+
+    public SortKey(String column, boolean descending) {
+        this.column = column;
+        this.descending = descending;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public String toString() {
+        return column + (descending ? " DESC" : " ASC");
+    }
+}
\ No newline at end of file
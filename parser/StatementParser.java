@@ -0,0 +1,587 @@
+package parser;
+
+import command.*;
+import exception.DatabaseException;
+import index.IndexType;
+import model.Row;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Recursive-descent parser over the tokens of one statement. Each parse method starts at its first token and leaves
+// the lexer on the first token after it; errors name the position of the token that could not be parsed.
+class StatementParser {
+    private static final String INSERT_USAGE = "INSERT INTO table (col1, col2) VALUES (val1, val2)";
+    private static final String SELECT_USAGE = "SELECT * FROM table [[LEFT] JOIN table2 ON col1 = col2] [WHERE col=val] "
+            + "[GROUP BY col] [ORDER BY col [ASC|DESC]] [LIMIT n] [OFFSET n]";
+    private static final String DELETE_USAGE = "DELETE FROM table [WHERE col=val]";
+    private static final String UPDATE_USAGE = "UPDATE table SET col=val [WHERE col=val]";
+    private static final String COPY_USAGE = "COPY table FROM 'file.csv' (or .jsonl)";
+    private static final String CREATE_INDEX_USAGE = "CREATE [ORDERED] INDEX [name] ON table (col)";
+    private static final String EXPLAIN_USAGE = "EXPLAIN SELECT ...";
+    private static final String ANALYZE_USAGE = "ANALYZE [table]";
+    // Words that end a table reference, so they are never read as its alias.
+    private static final String[] CLAUSE_KEYWORDS = {"WHERE", "GROUP", "ORDER", "LIMIT", "OFFSET", "JOIN", "INNER", "LEFT", "ON", "AS"};
+
+    private final Lexer lexer;
+    private final List<Parameter> parameters;
+    private String statement;
+    private String usage;
+
+    StatementParser(String text, List<Parameter> parameters) throws DatabaseException {
+        this.lexer = new Lexer(text);
+        this.parameters = parameters;
+    }
+
+    Command parse() throws DatabaseException {
+        Command command = parseStatement();
+        if (lexer.kind() == Lexer.Kind.SEMICOLON) {
+            lexer.advance();
+        }
+        if (lexer.kind() != Lexer.Kind.END) {
+            throw error("unexpected " + describe());
+        }
+        return command;
+    }
+
+    private Command parseStatement() throws DatabaseException {
+        if (accept("INSERT")) {
+            begin("INSERT", INSERT_USAGE);
+            return parseInsert();
+        } else if (accept("SELECT")) {
+            begin("SELECT", SELECT_USAGE);
+            return parseSelect();
+        } else if (accept("DELETE")) {
+            begin("DELETE", DELETE_USAGE);
+            return parseDelete();
+        } else if (accept("UPDATE")) {
+            begin("UPDATE", UPDATE_USAGE);
+            return parseUpdate();
+        } else if (accept("COPY")) {
+            begin("COPY", COPY_USAGE);
+            return parseCopy();
+        } else if (accept("CREATE")) {
+            begin("CREATE INDEX", CREATE_INDEX_USAGE);
+            return parseCreateIndex();
+        } else if (accept("EXPLAIN")) {
+            begin("EXPLAIN", EXPLAIN_USAGE);
+            expect("SELECT");
+            begin("SELECT", SELECT_USAGE);
+            return new ExplainCommand(parseSelect());
+        } else if (accept("ANALYZE")) {
+            begin("ANALYZE", ANALYZE_USAGE);
+            return new AnalyzeCommand(lexer.kind() == Lexer.Kind.WORD ? tableName() : null);
+        } else if (accept("SHOW")) {
+            begin("SHOW", "SHOW STATS");
+            expect("STATS");
+            return new ShowStatsCommand();
+        } else if (accept("BEGIN")) {
+            accept("TRANSACTION");
+            return new BeginCommand();
+        } else if (accept("START")) {
+            begin("START TRANSACTION", "START TRANSACTION");
+            expect("TRANSACTION");
+            return new BeginCommand();
+        } else if (accept("COMMIT")) {
+            accept("TRANSACTION");
+            return new CommitCommand();
+        } else if (accept("ROLLBACK")) {
+            accept("TRANSACTION");
+            return new RollbackCommand();
+        } else if (accept("EXIT") || accept("QUIT")) {
+            return new ExitCommand();
+        }
+        throw new DatabaseException("Unknown command syntax.");
+    }
+
+    private Command parseInsert() throws DatabaseException {
+        expect("INTO");
+        String tableName = tableName();
+        expect(Lexer.Kind.LEFT_PAREN, "'('");
+        List<String> columns = new ArrayList<>();
+        do {
+            columns.add(identifier("a column name"));
+        } while (accept(Lexer.Kind.COMMA));
+        expect(Lexer.Kind.RIGHT_PAREN, "')'");
+        expect("VALUES");
+
+        List<Row> rows = new ArrayList<>();
+        do {
+            int position = lexer.position();
+            expect(Lexer.Kind.LEFT_PAREN, "'('");
+            Row row = new Row();
+            for (int i = 0; ; i++) {
+                Object value = value();
+                if (i < columns.size()) {
+                    row.put(columns.get(i), value);
+                }
+                if (!accept(Lexer.Kind.COMMA)) {
+                    if (i + 1 != columns.size()) {
+                        throw new DatabaseException("Column count doesn't match value count in the tuple at position " + position + ".");
+                    }
+                    break;
+                }
+            }
+            expect(Lexer.Kind.RIGHT_PAREN, "')'");
+            rows.add(row);
+        } while (accept(Lexer.Kind.COMMA));
+
+        return new InsertCommand(tableName, rows);
+    }
+
+    private Command parseSelect() throws DatabaseException {
+        List<String> columns = new ArrayList<>();
+        List<String> plainColumns = new ArrayList<>();
+        List<Aggregate> aggregates = new ArrayList<>();
+        if (accept(Lexer.Kind.STAR)) {
+            columns.add("*");
+            plainColumns.add("*");
+        } else {
+            do {
+                Aggregate aggregate = selectItem(plainColumns);
+                if (aggregate != null) {
+                    aggregates.add(aggregate);
+                    columns.add(aggregate.getLabel());
+                } else {
+                    columns.add(plainColumns.get(plainColumns.size() - 1));
+                }
+            } while (accept(Lexer.Kind.COMMA));
+        }
+
+        expect("FROM");
+        String tableName = tableName();
+        int aliasPosition = lexer.position();
+        String alias = alias();
+        if (lexer.isKeyword("JOIN") || lexer.isKeyword("INNER") || lexer.isKeyword("LEFT")) {
+            return parseJoin(tableName, alias, columns, aggregates);
+        }
+        if (alias != null) {
+            throw new DatabaseException(errorPrefix(aliasPosition) + "unexpected '" + alias
+                    + "'; table aliases are only allowed in a JOIN. Usage: " + usage);
+        }
+
+        WhereClause where = accept("WHERE") ? parseWhere() : null;
+        List<String> groupBy = null;
+        if (accept("GROUP")) {
+            expect("BY");
+            groupBy = new ArrayList<>();
+            do {
+                groupBy.add(identifier("a column name"));
+            } while (accept(Lexer.Kind.COMMA));
+        }
+        List<SortKey> orderBy = parseOrderBy(false);
+        long limit = accept("LIMIT") ? count("LIMIT") : -1;
+        long offset = accept("OFFSET") ? count("OFFSET") : 0;
+
+        if (aggregates.isEmpty() && groupBy == null) {
+            for (SortKey key : orderBy) {
+                if (key.getColumn().indexOf('(') >= 0) {
+                    throw new DatabaseException("ORDER BY " + key.getColumn() + " is only allowed in an aggregate query.");
+                }
+            }
+            return new SelectCommand(tableName, columns, where, orderBy, limit, offset);
+        }
+
+        if (groupBy == null) {
+            groupBy = Collections.emptyList();
+        }
+        for (String column : plainColumns) {
+            if (column.equals("*")) {
+                throw new DatabaseException("SELECT * cannot be combined with aggregates or GROUP BY.");
+            }
+            if (!groupBy.contains(column)) {
+                throw new DatabaseException("Column '" + column + "' must appear in GROUP BY or be used in an aggregate.");
+            }
+        }
+        // Sorting happens on the grouped rows, which hold only the selected columns.
+        for (SortKey key : orderBy) {
+            if (!columns.contains(key.getColumn())) {
+                throw new DatabaseException("ORDER BY column '" + key.getColumn() + "' must appear in the select list of an aggregate query.");
+            }
+        }
+        return new AggregateCommand(tableName, columns, aggregates, groupBy, where, orderBy, limit, offset);
+    }
+
+    private Command parseJoin(String leftTable, String leftAlias, List<String> columns, List<Aggregate> aggregates) throws DatabaseException {
+        if (!aggregates.isEmpty()) {
+            throw new DatabaseException("Aggregates are not supported with JOIN.");
+        }
+        JoinType type = JoinType.INNER;
+        if (accept("LEFT")) {
+            accept("OUTER");
+            type = JoinType.LEFT;
+        } else {
+            accept("INNER");
+        }
+        expect("JOIN");
+        String rightTable = tableName();
+        String rightAlias = alias();
+        expect("ON");
+
+        List<JoinCondition> conditions = new ArrayList<>();
+        do {
+            int position = lexer.position();
+            String left = joinOperand();
+            if (lexer.kind() != Lexer.Kind.OPERATOR) {
+                throw error("expected a comparison operator but found " + describe());
+            }
+            Operator operator = lexer.operator();
+            lexer.advance();
+            String right = joinOperand();
+            if (left == null || right == null) {
+                throw new DatabaseException(errorPrefix(position)
+                        + "ON compares columns of the two tables; filter on values in WHERE. Usage: " + usage);
+            }
+            conditions.add(new JoinCondition(left, operator, right));
+        } while (accept("AND"));
+        Join join = new Join(leftTable, leftAlias, rightTable, rightAlias, type, conditions);
+
+        WhereClause where = accept("WHERE") ? parseWhere() : null;
+        if (lexer.isKeyword("GROUP")) {
+            throw error("GROUP BY is not supported with JOIN");
+        }
+        List<SortKey> orderBy = parseOrderBy(true);
+        long limit = accept("LIMIT") ? count("LIMIT") : -1;
+        long offset = accept("OFFSET") ? count("OFFSET") : 0;
+        return new JoinCommand(join, columns, where, orderBy, limit, offset);
+    }
+
+    // A column of an ON condition, or null for a literal value.
+    private String joinOperand() throws DatabaseException {
+        if (lexer.kind() == Lexer.Kind.WORD && isNumber()) {
+            lexer.advance();
+            return null;
+        }
+        if (lexer.kind() == Lexer.Kind.STRING || lexer.kind() == Lexer.Kind.PARAMETER) {
+            lexer.advance();
+            return null;
+        }
+        return identifier("a column name");
+    }
+
+    // Adds a plain column to the given list and returns null, or returns the aggregate the item calls.
+    private Aggregate selectItem(List<String> plainColumns) throws DatabaseException {
+        int position = lexer.position();
+        if (lexer.isKeyword("FROM")) {
+            throw error("expected a column name but found " + describe());
+        }
+        String name = identifier("a column name");
+        if (!accept(Lexer.Kind.LEFT_PAREN)) {
+            plainColumns.add(name);
+            return null;
+        }
+        AggregateFunction function;
+        try {
+            function = AggregateFunction.fromName(name);
+        } catch (IllegalArgumentException e) {
+            throw new DatabaseException(errorPrefix(position) + "unknown function " + name + ". Usage: " + usage);
+        }
+        Aggregate aggregate;
+        if (accept(Lexer.Kind.STAR)) {
+            if (function != AggregateFunction.COUNT) {
+                throw new DatabaseException(function + "(*) is not supported; name a column.");
+            }
+            aggregate = new Aggregate(function, null);
+        } else {
+            aggregate = new Aggregate(function, identifier("a column name or *"));
+        }
+        expect(Lexer.Kind.RIGHT_PAREN, "')'");
+        return aggregate;
+    }
+
+    private List<SortKey> parseOrderBy(boolean qualified) throws DatabaseException {
+        if (!accept("ORDER")) {
+            return Collections.emptyList();
+        }
+        expect("BY");
+        List<SortKey> keys = new ArrayList<>();
+        do {
+            int position = lexer.position();
+            String column = identifier("a column name");
+            if (accept(Lexer.Kind.LEFT_PAREN)) {
+                AggregateFunction function;
+                try {
+                    function = AggregateFunction.fromName(column);
+                } catch (IllegalArgumentException e) {
+                    throw new DatabaseException(errorPrefix(position) + "unknown function " + column + ". Usage: " + usage);
+                }
+                String argument = accept(Lexer.Kind.STAR) ? null : identifier("a column name or *");
+                expect(Lexer.Kind.RIGHT_PAREN, "')'");
+                column = new Aggregate(function, argument).getLabel();
+            } else if (!qualified && column.indexOf('.') >= 0) {
+                throw new DatabaseException(errorPrefix(position) + "invalid ORDER BY item " + column + ". Usage: " + usage);
+            }
+            boolean descending = accept("DESC");
+            if (!descending) {
+                accept("ASC");
+            }
+            keys.add(new SortKey(column, descending));
+        } while (accept(Lexer.Kind.COMMA));
+        return keys;
+    }
+
+    private Command parseDelete() throws DatabaseException {
+        expect("FROM");
+        String tableName = tableName();
+        WhereClause where = accept("WHERE") ? parseWhere() : null;
+        return new DeleteCommand(tableName, where);
+    }
+
+    private Command parseUpdate() throws DatabaseException {
+        String tableName = tableName();
+        expect("SET");
+        Map<String, Object> setClauses = new HashMap<>();
+        do {
+            String column = identifier("a column name");
+            if (lexer.kind() != Lexer.Kind.OPERATOR || lexer.operator() != Operator.EQ) {
+                throw error("expected '=' after " + column + " but found " + describe());
+            }
+            lexer.advance();
+            setClauses.put(column, value());
+        } while (accept(Lexer.Kind.COMMA));
+        WhereClause where = accept("WHERE") ? parseWhere() : null;
+        return new UpdateCommand(tableName, setClauses, where);
+    }
+
+    private Command parseCopy() throws DatabaseException {
+        String tableName = tableName();
+        expect("FROM");
+        if (lexer.kind() != Lexer.Kind.STRING) {
+            throw error("expected a quoted file name but found " + describe());
+        }
+        String fileName = lexer.string();
+        lexer.advance();
+        return new CopyCommand(tableName, fileName);
+    }
+
+    private Command parseCreateIndex() throws DatabaseException {
+        IndexType type = accept("ORDERED") ? IndexType.ORDERED : IndexType.HASH;
+        expect("INDEX");
+        if (!lexer.isKeyword("ON")) {
+            identifier("an index name");
+        }
+        expect("ON");
+        String tableName = tableName();
+        expect(Lexer.Kind.LEFT_PAREN, "'('");
+        String column = identifier("a column name");
+        expect(Lexer.Kind.RIGHT_PAREN, "')'");
+        return new CreateIndexCommand(tableName, column, type);
+    }
+
+    private WhereClause parseWhere() throws DatabaseException {
+        return new WhereClause(parseOr());
+    }
+
+    private RowPredicate parseOr() throws DatabaseException {
+        RowPredicate first = parseAnd();
+        if (!lexer.isKeyword("OR")) {
+            return first;
+        }
+        List<RowPredicate> children = new ArrayList<>();
+        children.add(first);
+        while (accept("OR")) {
+            children.add(parseAnd());
+        }
+        return new OrPredicate(children);
+    }
+
+    private RowPredicate parseAnd() throws DatabaseException {
+        RowPredicate first = parseNot();
+        if (!lexer.isKeyword("AND")) {
+            return first;
+        }
+        List<RowPredicate> children = new ArrayList<>();
+        children.add(first);
+        while (accept("AND")) {
+            children.add(parseNot());
+        }
+        return new AndPredicate(children);
+    }
+
+    private RowPredicate parseNot() throws DatabaseException {
+        if (accept("NOT")) {
+            return new NotPredicate(parseNot());
+        }
+        if (accept(Lexer.Kind.LEFT_PAREN)) {
+            RowPredicate inner = parseOr();
+            expect(Lexer.Kind.RIGHT_PAREN, "')'");
+            return inner;
+        }
+        return parseComparison();
+    }
+
+    private RowPredicate parseComparison() throws DatabaseException {
+        String column = identifier("a column name");
+        if (lexer.kind() != Lexer.Kind.OPERATOR) {
+            throw error("expected an operator after " + column + " but found " + describe());
+        }
+        Operator operator = lexer.operator();
+        lexer.advance();
+        return Comparison.of(column, operator, value());
+    }
+
+    // A literal or a ? placeholder. Unquoted words are numbers if they parse as one, and text otherwise.
+    private Object value() throws DatabaseException {
+        Object value;
+        switch (lexer.kind()) {
+            case PARAMETER:
+                Parameter parameter = new Parameter(parameters.size());
+                parameters.add(parameter);
+                value = parameter;
+                break;
+            case STRING:
+                value = lexer.string();
+                break;
+            case WORD:
+                if (isKeyword()) {
+                    throw error("expected a value but found " + describe());
+                }
+                String text = lexer.text();
+                try {
+                    value = Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    value = text;
+                }
+                break;
+            default:
+                throw error("expected a value but found " + describe());
+        }
+        lexer.advance();
+        return value;
+    }
+
+    private String tableName() throws DatabaseException {
+        if (lexer.kind() != Lexer.Kind.WORD || !isName(lexer.text(), false)) {
+            throw error("expected a table name but found " + describe());
+        }
+        String name = lexer.text();
+        lexer.advance();
+        return name;
+    }
+
+    // An optional [AS] alias after a table name.
+    private String alias() throws DatabaseException {
+        if (accept("AS")) {
+            return tableName();
+        }
+        if (lexer.kind() != Lexer.Kind.WORD) {
+            return null;
+        }
+        for (String keyword : CLAUSE_KEYWORDS) {
+            if (lexer.isKeyword(keyword)) {
+                return null;
+            }
+        }
+        return tableName();
+    }
+
+    // A column name, optionally qualified by a table alias as in "e.name".
+    private String identifier(String expected) throws DatabaseException {
+        if (lexer.kind() != Lexer.Kind.WORD || !isName(lexer.text(), true)) {
+            throw error("expected " + expected + " but found " + describe());
+        }
+        String name = lexer.text();
+        lexer.advance();
+        return name;
+    }
+
+    private static boolean isName(String word, boolean qualified) {
+        int dot = -1;
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c == '.' && qualified && dot < 0 && i > 0 && i < word.length() - 1) {
+                dot = i;
+            } else if (!(c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9'))) {
+                return false;
+            }
+        }
+        return !word.isEmpty();
+    }
+
+    private boolean isNumber() {
+        String text = lexer.text();
+        char first = text.charAt(0);
+        if (first != '-' && first != '+' && first != '.' && (first < '0' || first > '9')) {
+            return false;
+        }
+        try {
+            Double.parseDouble(text);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private boolean isKeyword() {
+        return lexer.isKeyword("AND") || lexer.isKeyword("OR") || lexer.isKeyword("NOT");
+    }
+
+    private long count(String clause) throws DatabaseException {
+        String text = lexer.kind() == Lexer.Kind.WORD ? lexer.text() : "";
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                text = "";
+                break;
+            }
+        }
+        if (text.isEmpty()) {
+            throw error("expected a whole number after " + clause + " but found " + describe());
+        }
+        long value;
+        try {
+            value = Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new DatabaseException(clause + " value is too large: " + text);
+        }
+        lexer.advance();
+        return value;
+    }
+
+    private void begin(String statement, String usage) {
+        this.statement = statement;
+        this.usage = usage;
+    }
+
+    private boolean accept(String keyword) throws DatabaseException {
+        if (lexer.isKeyword(keyword)) {
+            lexer.advance();
+            return true;
+        }
+        return false;
+    }
+
+    private boolean accept(Lexer.Kind kind) throws DatabaseException {
+        if (lexer.kind() == kind) {
+            lexer.advance();
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String keyword) throws DatabaseException {
+        if (!accept(keyword)) {
+            throw error("expected " + keyword + " but found " + describe());
+        }
+    }
+
+    private void expect(Lexer.Kind kind, String expected) throws DatabaseException {
+        if (!accept(kind)) {
+            throw error("expected " + expected + " but found " + describe());
+        }
+    }
+
+    private String describe() {
+        return lexer.kind() == Lexer.Kind.END ? "the end of the statement" : "'" + lexer.text() + "'";
+    }
+
+    private String errorPrefix(int position) {
+        return "Invalid " + (statement == null ? "" : statement + " ") + "syntax at position " + position + ": ";
+    }
+
+    private DatabaseException error(String detail) {
+        return new DatabaseException(errorPrefix(lexer.position()) + detail + (usage == null ? "" : ". Usage: " + usage));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package parser;
+
+public class StringComparison extends Comparison {
+    private final String literal;
+
+    public StringComparison(String column, Operator operator, String literal) {
+        super(column, operator);
+        this.literal = literal;
+    }
+
+    @Override
+    public Object getValue() {
+        return literal;
+    }
+
+    @Override
+    public boolean testValue(Object value) {
+        if (value == null) return false;
+        if (value instanceof String) {
+            return operator.test(((String) value).compareTo(literal));
+        }
+        return operator.test(value.toString().compareTo(literal));
+    }
+
+    @Override
+    public double cost() {
+        return 2.0;
+    }
+}
\ No newline at end of file
@@ -2,56 +2,55 @@ package parser;
 
 import model.Row;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class WhereClause {
-    private final String column;
-    private final String operator;
-    private final Object value;
+    private final RowPredicate predicate;
+    private final List<Comparison> conjuncts;
 
     public WhereClause(String column, String operator, Object value) {
-        this.column = column;
-        this.operator = operator;
-        this.value = value;
+        this(Comparison.of(column, Operator.fromSymbol(operator), value));
     }
 
-    public boolean matches(Row row) {
-        Object rowValue = row.get(column);
-        
-        if (rowValue == null) return false;
-
-        if (rowValue instanceof Number && value instanceof Number) {
-            return compareNumbers(((Number) rowValue).doubleValue(), ((Number) value).doubleValue());
+    public WhereClause(RowPredicate predicate) {
+        this.predicate = predicate;
+        this.conjuncts = new ArrayList<>();
+        if (predicate instanceof Comparison) {
+            conjuncts.add((Comparison) predicate);
+        } else if (predicate instanceof AndPredicate) {
+            for (RowPredicate child : ((AndPredicate) predicate).getChildren()) {
+                if (child instanceof Comparison) {
+                    conjuncts.add((Comparison) child);
+                }
+            }
         }
+    }
 
-        return compareStrings(rowValue.toString(), value.toString());
+    public RowPredicate getPredicate() {
+        return predicate;
     }
 
-    private boolean compareNumbers(double n1, double n2) {
-        switch (operator) {
-            case "=": return Double.compare(n1, n2) == 0;
-            case "!=": return Double.compare(n1, n2) != 0;
-            case ">": return n1 > n2;
-            case "<": return n1 < n2;
-            case ">=": return n1 >= n2;
-            case "<=": return n1 <= n2;
-            default: return false;
-        }
+    // Top-level comparisons every matching row must satisfy, in evaluation order; usable for index lookups.
+    public List<Comparison> getConjuncts() {
+        return conjuncts;
     }
 
-    private boolean compareStrings(String s1, String s2) {
-        int comparison = s1.compareTo(s2);
-        switch (operator) {
-            case "=": return comparison == 0;
-            case "!=": return comparison != 0;
-            case ">": return comparison > 0;
-            case "<": return comparison < 0;
-            case ">=": return comparison >= 0;
-            case "<=": return comparison <= 0;
-            default: return false;
-        }
+    public boolean isSingleComparison() {
+        return predicate instanceof Comparison;
     }
-    
+
+    public WhereClause bind(Object[] parameters) {
+        RowPredicate bound = predicate.bind(parameters);
+        return bound == predicate ? this : new WhereClause(bound);
+    }
+
+    public boolean matches(Row row) {
+        return predicate.test(row);
+    }
+
     @Override
     public String toString() {
-        return column + " " + operator + " " + value;
+        return predicate.toString();
     }
 }
\ No newline at end of file
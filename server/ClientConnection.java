@@ -0,0 +1,233 @@
+package server;
+
+import command.Command;
+import engine.DatabaseEngine;
+import engine.Result;
+import engine.Session;
+import exception.DatabaseException;
+import model.Row;
+import parser.SqlParser;
+import storage.JsonStorage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// One statement per request line. Every reply is zero or more "ROW <json>" lines followed by
+// exactly one "OK <message>" or "ERROR <message>" line, so clients may pipeline requests.
+class ClientConnection implements Runnable {
+    private static final int READ_BUFFER_BYTES = 1024;
+    // Reply text held in memory before the rest of a large result goes to a temporary file.
+    private static final int SPILL_THRESHOLD_CHARS = 1024 * 1024;
+    private static final JsonStorage CODEC = new JsonStorage();
+
+    private final Socket socket;
+    private final SqlParser parser;
+    private final Session session;
+    private final int idleTimeoutMillis;
+    private final int maxRequestBytes;
+    // Idle connections hold only the small read buffer; replies are built on demand.
+    private final byte[] buffer = new byte[READ_BUFFER_BYTES];
+    private int position = 0;
+    private int limit = 0;
+    private StringBuilder pending;
+    private boolean tooLong;
+    private Path spill;
+    private Writer spillWriter;
+
+    ClientConnection(Socket socket, DatabaseEngine engine, SqlParser parser, ServerConfig config) {
+        this.socket = socket;
+        this.parser = parser;
+        this.session = new Session(engine);
+        this.idleTimeoutMillis = config.getIdleTimeoutMillis();
+        this.maxRequestBytes = config.getMaxRequestBytes();
+    }
+
+    @Override
+    public void run() {
+        try {
+            socket.setSoTimeout(idleTimeoutMillis);
+            socket.setTcpNoDelay(true);
+            InputStream in = socket.getInputStream();
+            OutputStream out = socket.getOutputStream();
+            String line;
+            while ((line = readLine(in)) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                boolean exit = handle(line.trim(), out);
+                // Pipelined requests already waiting get their replies in a single write.
+                if (exit || !hasBufferedInput(in)) {
+                    flush(out);
+                }
+                if (exit) {
+                    break;
+                }
+            }
+            if (tooLong) {
+                replyAndClose("ERROR Request line longer than " + maxRequestBytes + " bytes");
+            }
+        } catch (SocketTimeoutException e) {
+            replyAndClose("ERROR Idle timeout");
+        } catch (IOException e) {
+            // the client disconnected or the server is stopping
+        } finally {
+            try {
+                session.close();
+            } catch (DatabaseException e) {
+                System.err.println("ERROR: " + e.getMessage());
+            }
+            discardSpill();
+            close();
+        }
+    }
+
+    void close() {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // already closed
+        }
+    }
+
+    private boolean handle(String line, OutputStream out) throws IOException {
+        try {
+            Command command = parser.parse(line);
+            Result result = session.execute(command);
+            if (result.hasData()) {
+                // Drains the cursor before anything is written to the socket, so a client that stops reading
+                // cannot keep the table's read lock.
+                try (Result cursor = result) {
+                    for (Row row = cursor.next(); row != null; row = cursor.next()) {
+                        reply("ROW " + CODEC.serializeRow(row));
+                        if (pending.length() >= SPILL_THRESHOLD_CHARS) {
+                            spill();
+                        }
+                    }
+                }
+            }
+            reply((result.isSuccess() ? "OK " : "ERROR ") + singleLine(result.getMessage()));
+            return command.shouldExit();
+        } catch (DatabaseException e) {
+            reply("ERROR " + singleLine(e.getMessage()));
+        } catch (RuntimeException e) {
+            reply("ERROR Internal error: " + singleLine(String.valueOf(e.getMessage())));
+        }
+        return false;
+    }
+
+    private void replyAndClose(String line) {
+        try {
+            reply(line);
+            flush(socket.getOutputStream());
+        } catch (IOException ignored) {
+            // closing anyway
+        }
+    }
+
+    private void reply(String line) {
+        if (pending == null) {
+            pending = new StringBuilder();
+        }
+        pending.append(line).append('\n');
+    }
+
+    private void spill() throws IOException {
+        if (spillWriter == null) {
+            spill = Files.createTempFile("reply-", ".tmp");
+            spillWriter = Files.newBufferedWriter(spill, StandardCharsets.UTF_8);
+        }
+        spillWriter.append(pending);
+        pending = null;
+    }
+
+    // Spilled replies come first, since everything still in memory was produced after them.
+    private void flush(OutputStream out) throws IOException {
+        if (spill != null) {
+            spillWriter.close();
+            Files.copy(spill, out);
+            discardSpill();
+        }
+        if (pending != null) {
+            out.write(pending.toString().getBytes(StandardCharsets.UTF_8));
+            pending = null;
+        }
+        out.flush();
+    }
+
+    private void discardSpill() {
+        if (spill == null) {
+            return;
+        }
+        try {
+            spillWriter.close();
+            Files.deleteIfExists(spill);
+        } catch (IOException e) {
+            System.err.println("ERROR: " + e.getMessage());
+        }
+        spill = null;
+        spillWriter = null;
+    }
+
+    private boolean hasBufferedInput(InputStream in) throws IOException {
+        return position < limit || in.available() > 0;
+    }
+
+    // Null at the end of the stream, or once a line grows past maxRequestBytes, which sets tooLong.
+    private String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream overflow = null;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return overflow == null ? null : decode(overflow.toByteArray(), overflow.size());
+                }
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            if (position < limit) {
+                int end = position++;
+                if (overflow == null) {
+                    return decode(buffer, start, end);
+                }
+                overflow.write(buffer, start, end - start);
+                return decode(overflow.toByteArray(), overflow.size());
+            }
+            if (overflow == null) {
+                overflow = new ByteArrayOutputStream();
+            }
+            // Without a newline in sight the line could grow without bound, so it stops at the limit.
+            if (overflow.size() + position - start > maxRequestBytes) {
+                tooLong = true;
+                return null;
+            }
+            overflow.write(buffer, start, position - start);
+        }
+    }
+
+    private static String decode(byte[] bytes, int length) {
+        return decode(bytes, 0, length);
+    }
+
+    private static String decode(byte[] bytes, int start, int end) {
+        if (end > start && bytes[end - 1] == '\r') {
+            end--;
+        }
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static String singleLine(String message) {
+        return message.replace("\r", " ").replace("\n", " ");
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package server;
+
+import engine.DatabaseEngine;
+import parser.SqlParser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+public class DatabaseServer {
+    private static final int BACKLOG = 1024;
+
+    private final DatabaseEngine engine;
+    private final ServerConfig config;
+    private final Semaphore permits;
+    // Shared so every connection benefits from the same prepared statement cache.
+    private final SqlParser parser = new SqlParser();
+    private final Map<ClientConnection, Thread> connections = new ConcurrentHashMap<>();
+    private volatile ServerSocket serverSocket;
+
+    public DatabaseServer(DatabaseEngine engine, ServerConfig config) {
+        this.engine = engine;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxConnections());
+    }
+
+    public void bind() throws IOException {
+        ServerSocket socket = new ServerSocket();
+        socket.setReuseAddress(true);
+        InetAddress address = config.getHost() == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(config.getHost());
+        socket.bind(new InetSocketAddress(address, config.getPort()), BACKLOG);
+        serverSocket = socket;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    // Accepts until stop() is called; each connection is served on its own virtual thread.
+    public void serve() throws IOException {
+        while (true) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            if (!permits.tryAcquire()) {
+                reject(socket);
+                continue;
+            }
+            ClientConnection connection = new ClientConnection(socket, engine, parser, config);
+            Thread thread = Thread.ofVirtual().name("client-" + socket.getPort()).unstarted(() -> {
+                try {
+                    connection.run();
+                } finally {
+                    connections.remove(connection);
+                    permits.release();
+                }
+            });
+            connections.put(connection, thread);
+            thread.start();
+        }
+    }
+
+    // Disconnects every client and waits for their sessions to roll back, so the engine can be shut down safely.
+    public void stop() {
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            // already closed
+        }
+        for (ClientConnection connection : connections.keySet()) {
+            connection.close();
+        }
+        for (Thread thread : connections.values()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private static void reject(Socket socket) {
+        try (socket) {
+            OutputStream out = socket.getOutputStream();
+            out.write("ERROR Too many connections\n".getBytes(StandardCharsets.UTF_8));
+            out.flush();
+        } catch (IOException e) {
+            // the client went away before it could be told
+        }
+    }
+}
\ No newline at end of file
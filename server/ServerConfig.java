@@ -0,0 +1,73 @@
+package server;
+
+public class ServerConfig {
+    private String host = null;
+    private int port = 5480;
+    private int maxConnections = 10_000;
+    private int idleTimeoutMillis = 300_000;
+    private int maxRequestBytes = 1024 * 1024;
+
+    public static ServerConfig fromSystemProperties() {
+        ServerConfig config = new ServerConfig();
+        config.setHost(System.getProperty("db.server.host"));
+        config.setPort(Integer.getInteger("db.server.port", config.getPort()));
+        config.setMaxConnections(Integer.getInteger("db.server.max.connections", config.getMaxConnections()));
+        config.setIdleTimeoutMillis(Integer.getInteger("db.server.idle.timeout.ms", config.getIdleTimeoutMillis()));
+        config.setMaxRequestBytes(Integer.getInteger("db.server.max.request.bytes", config.getMaxRequestBytes()));
+        return config;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        if (port < 0 || port > 65535) {
+            throw new IllegalArgumentException("Port must be between 0 and 65535");
+        }
+        this.port = port;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        if (maxConnections <= 0) {
+            throw new IllegalArgumentException("Connection limit must be positive");
+        }
+        this.maxConnections = maxConnections;
+    }
+
+    public int getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    // Zero disables the timeout.
+    public void setIdleTimeoutMillis(int idleTimeoutMillis) {
+        if (idleTimeoutMillis < 0) {
+            throw new IllegalArgumentException("Idle timeout must not be negative");
+        }
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    public int getMaxRequestBytes() {
+        return maxRequestBytes;
+    }
+
+    // A longer request line is answered with an error and the connection is closed.
+    public void setMaxRequestBytes(int maxRequestBytes) {
+        if (maxRequestBytes <= 0) {
+            throw new IllegalArgumentException("Request size limit must be positive");
+        }
+        this.maxRequestBytes = maxRequestBytes;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,101 @@
+package storage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// One page of a binary table file, read in place: a type byte per column, then each column's slots,
+// then a heap of length-prefixed UTF-8 strings that text slots point into.
+class BinaryPage {
+    static final byte NUMBER = 1;
+    static final byte TEXT = 2;
+    static final byte MIXED = 3;
+
+    static final byte TAG_NULL = 0;
+    static final byte TAG_NUMBER = 1;
+    static final byte TAG_TEXT = 2;
+
+    private final ByteBuffer buffer;
+    private final int rows;
+    private final Map<String, Integer> columnIndex;
+    private final Set<String> columnNames;
+    private final byte[] types;
+    private final int[] offsets;
+
+    BinaryPage(ByteBuffer buffer, int rows, List<String> columns, Map<String, Integer> columnIndex, Set<String> columnNames) {
+        this.buffer = buffer;
+        this.rows = rows;
+        this.columnIndex = columnIndex;
+        this.columnNames = columnNames;
+        this.types = new byte[columns.size()];
+        this.offsets = new int[columns.size()];
+        int position = columns.size();
+        for (int c = 0; c < types.length; c++) {
+            types[c] = buffer.get(c);
+            offsets[c] = position;
+            position += columnBytes(types[c], rows);
+        }
+    }
+
+    int getRowCount() {
+        return rows;
+    }
+
+    Set<String> getColumnNames() {
+        return columnNames;
+    }
+
+    boolean hasColumn(String column) {
+        return columnIndex.containsKey(column);
+    }
+
+    Object get(String column, int slot) {
+        Integer c = columnIndex.get(column);
+        return c == null ? null : get(c, slot);
+    }
+
+    // Absolute reads only, so any number of sessions can decode the same page concurrently.
+    Object get(int column, int slot) {
+        int base = offsets[column];
+        switch (types[column]) {
+            case NUMBER:
+                if ((buffer.get(base + (slot >>> 3)) & (1 << (slot & 7))) != 0) {
+                    return null;
+                }
+                return buffer.getDouble(base + bitmapBytes(rows) + 8 * slot);
+            case TEXT:
+                return readString(buffer.getInt(base + 4 * slot));
+            default: {
+                int at = base + 9 * slot;
+                switch (buffer.get(at)) {
+                    case TAG_NUMBER: return buffer.getDouble(at + 1);
+                    case TAG_TEXT: return readString(buffer.getInt(at + 1));
+                    default: return null;
+                }
+            }
+        }
+    }
+
+    static int columnBytes(byte type, int rows) {
+        switch (type) {
+            case NUMBER: return bitmapBytes(rows) + 8 * rows;
+            case TEXT: return 4 * rows;
+            default: return 9 * rows;
+        }
+    }
+
+    static int bitmapBytes(int rows) {
+        return (rows + 7) >>> 3;
+    }
+
+    private String readString(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[buffer.getInt(offset)];
+        buffer.get(offset + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
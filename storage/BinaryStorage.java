@@ -0,0 +1,273 @@
+package storage;
+
+import exception.DatabaseException;
+import model.Row;
+import model.Table;
+import model.TableLayout;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Page-based binary table files. The header holds the schema, index specs and a page directory; each page
+// is mapped separately, and rows are lazy views over it, so opening a table parses no row data up front.
+public class BinaryStorage implements StorageEngine {
+    private static final String FILE_EXTENSION = ".tbl";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int MAGIC = 0x53444231;
+    private static final int VERSION = 1;
+    private static final int PREFIX_BYTES = 12;
+    private static final int DIRECTORY_ENTRY_BYTES = 16;
+    private static final int ROWS_PER_PAGE = 4096;
+
+    private final TableLayout layout;
+    private final JsonStorage legacy;
+
+    // Tables without a binary file yet are read from their JSON snapshot and converted at the next save.
+    public BinaryStorage(TableLayout layout, JsonStorage legacy) {
+        this.layout = layout;
+        this.legacy = legacy;
+    }
+
+    @Override
+    public Table loadTable(String tableName) throws DatabaseException {
+        Path path = Paths.get(tableName + FILE_EXTENSION);
+        if (!Files.exists(path)) {
+            return legacy.loadTable(tableName);
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Pages are mapped rather than read, so this counts what the table can fault in.
+            legacy.getIoCounters().read(channel.size());
+            return readTable(tableName, channel);
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new DatabaseException("Could not load data from file: " + e.getMessage());
+        }
+    }
+
+    // Writes a fresh file and renames it over the old one, so rows still mapped from the old file stay valid.
+    @Override
+    public void saveTable(Table table, boolean sync) throws DatabaseException {
+        Path path = Paths.get(table.getName() + FILE_EXTENSION);
+        Path temp = Paths.get(table.getName() + FILE_EXTENSION + TEMP_EXTENSION);
+        List<String> columns = table.getColumns();
+        List<String> indexSpecs = JsonStorage.indexSpecs(table);
+        List<Row> rows = table.getRows();
+        int pageCount = (rows.size() + ROWS_PER_PAGE - 1) / ROWS_PER_PAGE;
+        long[] offsets = new long[pageCount];
+        int[] lengths = new int[pageCount];
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = encodeHeader(table, columns, indexSpecs, rows.size(), offsets, lengths);
+            long position = header.remaining();
+            for (int p = 0; p < pageCount; p++) {
+                int from = p * ROWS_PER_PAGE;
+                ByteBuffer page = encodePage(rows, from, Math.min(from + ROWS_PER_PAGE, rows.size()), columns);
+                offsets[p] = position;
+                lengths[p] = page.remaining();
+                position += writeFully(channel, page, position);
+            }
+            writeFully(channel, encodeHeader(table, columns, indexSpecs, rows.size(), offsets, lengths), 0);
+            legacy.getIoCounters().written(position);
+            if (sync) {
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Could not save data to file: " + e.getMessage());
+        }
+        JsonStorage.replace(temp, path, sync);
+    }
+
+    private Table readTable(String tableName, FileChannel channel) throws IOException {
+        ByteBuffer prefix = channel.map(FileChannel.MapMode.READ_ONLY, 0, PREFIX_BYTES);
+        if (prefix.getInt() != MAGIC) {
+            throw new IOException("not a table file: " + tableName + FILE_EXTENSION);
+        }
+        if (prefix.getInt() != VERSION) {
+            throw new IOException("unsupported table file version in " + tableName + FILE_EXTENSION);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, prefix.getInt());
+        header.position(PREFIX_BYTES);
+
+        Table table = new Table(tableName, layout);
+        long lsn = header.getLong();
+        table.setLogSequence(lsn);
+        table.setSnapshotSequence(lsn);
+        header.getLong();
+
+        int columnCount = header.getInt();
+        List<String> columns = new ArrayList<>(columnCount);
+        Map<String, Integer> columnIndex = new HashMap<>();
+        for (int c = 0; c < columnCount; c++) {
+            String column = readString(header);
+            columns.add(column);
+            columnIndex.put(column, c);
+        }
+        Set<String> columnNames = Collections.unmodifiableSet(new LinkedHashSet<>(columns));
+
+        int indexCount = header.getInt();
+        for (int i = 0; i < indexCount; i++) {
+            JsonStorage.createIndex(table, readString(header));
+        }
+
+        int pageCount = header.getInt();
+        for (int p = 0; p < pageCount; p++) {
+            long offset = header.getLong();
+            int length = header.getInt();
+            int rows = header.getInt();
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            BinaryPage page = new BinaryPage(buffer, rows, columns, columnIndex, columnNames);
+            for (int slot = 0; slot < rows; slot++) {
+                table.insert(new MappedRow(page, slot));
+            }
+        }
+        return table;
+    }
+
+    private ByteBuffer encodeHeader(Table table, List<String> columns, List<String> indexSpecs, int rowCount,
+                                    long[] offsets, int[] lengths) {
+        List<byte[]> names = encodeAll(columns);
+        List<byte[]> specs = encodeAll(indexSpecs);
+        int size = PREFIX_BYTES + 8 + 8 + 4 + stringBytes(names) + 4 + stringBytes(specs) + 4
+                + DIRECTORY_ENTRY_BYTES * offsets.length;
+
+        ByteBuffer header = ByteBuffer.allocate(size);
+        header.putInt(MAGIC).putInt(VERSION).putInt(size);
+        header.putLong(table.getLogSequence());
+        header.putLong(rowCount);
+        header.putInt(names.size());
+        for (byte[] name : names) {
+            header.putInt(name.length).put(name);
+        }
+        header.putInt(specs.size());
+        for (byte[] spec : specs) {
+            header.putInt(spec.length).put(spec);
+        }
+        header.putInt(offsets.length);
+        for (int p = 0; p < offsets.length; p++) {
+            int rows = Math.min(ROWS_PER_PAGE, rowCount - p * ROWS_PER_PAGE);
+            header.putLong(offsets[p]).putInt(lengths[p]).putInt(rows);
+        }
+        return header.flip();
+    }
+
+    private ByteBuffer encodePage(List<Row> rows, int from, int to, List<String> columns) {
+        int count = to - from;
+        byte[] types = new byte[columns.size()];
+        // Strings are stored once per page; slots point at their heap entry.
+        Map<String, Integer> heapOffsets = new HashMap<>();
+        List<byte[]> heap = new ArrayList<>();
+        int heapBytes = 0;
+        int slotBytes = columns.size();
+
+        for (int c = 0; c < columns.size(); c++) {
+            String column = columns.get(c);
+            boolean numbers = false;
+            boolean strings = false;
+            for (int i = from; i < to; i++) {
+                Object value = rows.get(i).get(column);
+                if (value instanceof Number) {
+                    numbers = true;
+                } else if (value != null) {
+                    strings = true;
+                    if (!heapOffsets.containsKey(value.toString())) {
+                        byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                        heapOffsets.put(value.toString(), heapBytes);
+                        heap.add(bytes);
+                        heapBytes += 4 + bytes.length;
+                    }
+                }
+            }
+            types[c] = strings ? (numbers ? BinaryPage.MIXED : BinaryPage.TEXT) : BinaryPage.NUMBER;
+            slotBytes += BinaryPage.columnBytes(types[c], count);
+        }
+
+        ByteBuffer page = ByteBuffer.allocate(slotBytes + heapBytes);
+        page.put(types);
+        for (int c = 0; c < columns.size(); c++) {
+            String column = columns.get(c);
+            int base = page.position();
+            switch (types[c]) {
+                case BinaryPage.NUMBER: {
+                    int slots = base + BinaryPage.bitmapBytes(count);
+                    for (int i = 0; i < count; i++) {
+                        Object value = rows.get(from + i).get(column);
+                        if (value == null) {
+                            page.put(base + (i >>> 3), (byte) (page.get(base + (i >>> 3)) | (1 << (i & 7))));
+                        } else {
+                            page.putDouble(slots + 8 * i, ((Number) value).doubleValue());
+                        }
+                    }
+                    break;
+                }
+                case BinaryPage.TEXT:
+                    for (int i = 0; i < count; i++) {
+                        Object value = rows.get(from + i).get(column);
+                        page.putInt(base + 4 * i, value == null ? -1 : slotBytes + heapOffsets.get(value.toString()));
+                    }
+                    break;
+                default:
+                    for (int i = 0; i < count; i++) {
+                        Object value = rows.get(from + i).get(column);
+                        int at = base + 9 * i;
+                        if (value instanceof Number) {
+                            page.put(at, BinaryPage.TAG_NUMBER).putDouble(at + 1, ((Number) value).doubleValue());
+                        } else if (value != null) {
+                            page.put(at, BinaryPage.TAG_TEXT).putInt(at + 1, slotBytes + heapOffsets.get(value.toString()));
+                        } else {
+                            page.put(at, BinaryPage.TAG_NULL);
+                        }
+                    }
+            }
+            page.position(base + BinaryPage.columnBytes(types[c], count));
+        }
+        for (byte[] bytes : heap) {
+            page.putInt(bytes.length).put(bytes);
+        }
+        return page.flip();
+    }
+
+    private static long writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    private static List<byte[]> encodeAll(List<String> values) {
+        List<byte[]> encoded = new ArrayList<>(values.size());
+        for (String value : values) {
+            encoded.add(value.getBytes(StandardCharsets.UTF_8));
+        }
+        return encoded;
+    }
+
+    private static int stringBytes(List<byte[]> encoded) {
+        int total = 0;
+        for (byte[] bytes : encoded) {
+            total += 4 + bytes.length;
+        }
+        return total;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
\ No newline at end of file
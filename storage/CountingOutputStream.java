@@ -0,0 +1,27 @@
+package storage;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Adds what passes through to the written bytes. Sits under a buffer, so it sees a few large writes.
+class CountingOutputStream extends FilterOutputStream {
+    private final IoCounters counters;
+
+    CountingOutputStream(OutputStream out, IoCounters counters) {
+        super(out);
+        this.counters = counters;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        counters.written(1);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        counters.written(len);
+    }
+}
\ No newline at end of file
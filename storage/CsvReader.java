@@ -0,0 +1,140 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CsvReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder scratch = new StringBuilder();
+    private int pos = 0;
+    private int limit = 0;
+    private long line = 1;
+
+    public CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    // Unquoted fields that parse as numbers become Doubles and empty unquoted fields become null,
+    // matching how the SQL parser treats literals. Returns null at end of input.
+    public List<Object> nextRecord() throws IOException {
+        int c = peek();
+        while (c == '\r' || c == '\n') {
+            consumeLineBreak();
+            c = peek();
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        List<Object> fields = new ArrayList<>();
+        while (true) {
+            fields.add(peek() == '"' ? readQuoted() : readPlain());
+            c = peek();
+            if (c == ',') {
+                pos++;
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                consumeLineBreak();
+                return fields;
+            } else {
+                throw error("Expected ',' after quoted field");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String readQuoted() throws IOException {
+        pos++;
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw error("Unterminated quoted field");
+            }
+            char c = buffer[pos++];
+            if (c == '"') {
+                if (peek() == '"') {
+                    pos++;
+                    scratch.append('"');
+                } else {
+                    return scratch.toString();
+                }
+            } else {
+                if (c == '\n') {
+                    line++;
+                }
+                scratch.append(c);
+            }
+        }
+    }
+
+    private Object readPlain() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            char c = buffer[pos];
+            if (c == ',' || c == '\r' || c == '\n') {
+                break;
+            }
+            scratch.append(c);
+            pos++;
+        }
+        String text = scratch.toString().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        char first = text.charAt(0);
+        if (first == '-' || first == '+' || first == '.' || (first >= '0' && first <= '9')) {
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                // plain text that merely starts like a number
+            }
+        }
+        return text;
+    }
+
+    private void consumeLineBreak() throws IOException {
+        int c = peek();
+        if (c == '\r') {
+            pos++;
+            c = peek();
+        }
+        if (c == '\n') {
+            pos++;
+        }
+        line++;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private boolean fill() throws IOException {
+        pos = 0;
+        limit = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " on line " + line);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+package storage;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Bytes moved between the tables and their files, across table snapshots and the log. Shared by the storages of
+// one engine and updated once per file operation, not per row.
+public class IoCounters {
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+
+    void read(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    void written(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+}
\ No newline at end of file
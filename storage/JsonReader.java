@@ -0,0 +1,232 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+public class JsonReader implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Reader in;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private final StringBuilder scratch = new StringBuilder();
+    private int pos = 0;
+    private int limit = 0;
+    private long offset = 0;
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    public void beginObject() throws IOException {
+        expect('{');
+    }
+
+    public void endObject() throws IOException {
+        expect('}');
+    }
+
+    public void beginArray() throws IOException {
+        expect('[');
+    }
+
+    public void endArray() throws IOException {
+        expect(']');
+    }
+
+    public boolean hasNext() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == ',') {
+            pos++;
+            c = peekNonWhitespace();
+        }
+        return c != '}' && c != ']' && c != -1;
+    }
+
+    public String nextName() throws IOException {
+        String name = nextString();
+        expect(':');
+        return name;
+    }
+
+    public String nextString() throws IOException {
+        expect('"');
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw error("Unterminated string");
+            }
+            char c = buffer[pos++];
+            if (c == '"') {
+                return scratch.toString();
+            }
+            if (c == '\\') {
+                scratch.append(readEscape());
+            } else {
+                scratch.append(c);
+            }
+        }
+    }
+
+    public long nextLong() throws IOException {
+        Object value = nextValue();
+        if (!(value instanceof Double)) {
+            throw error("Expected a number");
+        }
+        return ((Double) value).longValue();
+    }
+
+    public Object nextValue() throws IOException {
+        int c = peekNonWhitespace();
+        switch (c) {
+            case '"':
+                return nextString();
+            case 'n':
+                readLiteral("null");
+                return null;
+            case 't':
+                return readLiteral("true");
+            case 'f':
+                return readLiteral("false");
+            case '{':
+            case '[':
+                throw error("Nested values are not supported");
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    return readNumber();
+                }
+                throw error("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    public boolean peekBoolean() throws IOException {
+        int c = peekNonWhitespace();
+        return c == 't' || c == 'f';
+    }
+
+    public void skipValue() throws IOException {
+        int c = peekNonWhitespace();
+        if (c == '{' || c == '[') {
+            pos++;
+            while (hasNext()) {
+                if (c == '{') {
+                    nextName();
+                }
+                skipValue();
+            }
+            expect(c == '{' ? '}' : ']');
+        } else {
+            nextValue();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private Double readNumber() throws IOException {
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            char c = buffer[pos];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                scratch.append(c);
+                pos++;
+            } else {
+                break;
+            }
+        }
+        try {
+            return Double.parseDouble(scratch.toString());
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + scratch + "'");
+        }
+    }
+
+    private String readLiteral(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (pos == limit && !fill()) {
+                throw error("Unexpected end of input");
+            }
+            if (buffer[pos++] != literal.charAt(i)) {
+                throw error("Expected '" + literal + "'");
+            }
+        }
+        return literal;
+    }
+
+    private char readEscape() throws IOException {
+        if (pos == limit && !fill()) {
+            throw error("Unterminated escape sequence");
+        }
+        char c = buffer[pos++];
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u': {
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    if (pos == limit && !fill()) {
+                        throw error("Unterminated unicode escape");
+                    }
+                    int digit = Character.digit(buffer[pos++], 16);
+                    if (digit == -1) {
+                        throw error("Invalid unicode escape");
+                    }
+                    code = (code << 4) | digit;
+                }
+                return (char) code;
+            }
+            default:
+                throw error("Invalid escape '\\" + c + "'");
+        }
+    }
+
+    private void expect(char expected) throws IOException {
+        int c = peekNonWhitespace();
+        if (c != expected) {
+            throw error(c == -1 ? "Expected '" + expected + "' but reached end of input"
+                    : "Expected '" + expected + "' but found '" + (char) c + "'");
+        }
+        pos++;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        offset += limit;
+        pos = 0;
+        limit = 0;
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        limit = read;
+        return true;
+    }
+
+    private IOException error(String message) {
+        return new IOException(message + " at offset " + (offset + pos));
+    }
+}
\ No newline at end of file
@@ -1,49 +1,98 @@
 package storage;
 
 import exception.DatabaseException;
+import index.Index;
+import index.IndexType;
 import model.Row;
 import model.Table;
+import model.TableLayout;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.regex.Pattern;
 
-public class JsonStorage {
+public class JsonStorage implements StorageEngine {
     private static final String FILE_EXTENSION = ".json";
-    private static final Pattern NUMBER_PATTERN = Pattern.compile("-?\\d+(\\.\\d+)?");
+    private static final String TEMP_EXTENSION = ".tmp";
 
-    public void saveTable(Table table) throws DatabaseException {
-        String filename = table.getName() + FILE_EXTENSION;
+    private final TableLayout layout;
+    private final IoCounters counters = new IoCounters();
+
+    public JsonStorage() {
+        this(TableLayout.ROW);
+    }
+
+    public JsonStorage(TableLayout layout) {
+        this.layout = layout;
+    }
+
+    // Also counts the binary storage and the log built on this codec.
+    public IoCounters getIoCounters() {
+        return counters;
+    }
+
+    // Writes a temporary file and renames it over the old one, so a crash mid-write never leaves a torn table.
+    @Override
+    public void saveTable(Table table, boolean sync) throws DatabaseException {
+        Path path = Paths.get(table.getName() + FILE_EXTENSION);
+        Path temp = Paths.get(table.getName() + FILE_EXTENSION + TEMP_EXTENSION);
         String jsonContent = serialize(table);
-        
-        try (FileWriter writer = new FileWriter(filename)) {
+
+        try (FileOutputStream out = new FileOutputStream(temp.toFile())) {
+            Writer writer = new OutputStreamWriter(new CountingOutputStream(out, counters), StandardCharsets.UTF_8);
             writer.write(jsonContent);
+            writer.flush();
+            if (sync) {
+                out.getFD().sync();
+            }
         } catch (IOException e) {
             throw new DatabaseException("Could not save data to file: " + e.getMessage());
         }
+        replace(temp, path, sync);
     }
 
+    // Renames the temporary file over the table's file; with sync, also forces the rename itself to disk.
+    static void replace(Path temp, Path path, boolean sync) throws DatabaseException {
+        try {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            if (sync) {
+                try (FileChannel directory = FileChannel.open(path.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+                    directory.force(true);
+                }
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Could not save data to file: " + e.getMessage());
+        }
+    }
+
+    @Override
     public Table loadTable(String tableName) throws DatabaseException {
-        String filename = tableName + FILE_EXTENSION;
-        File file = new File(filename);
+        Path path = Paths.get(tableName + FILE_EXTENSION);
 
-        if (!file.exists()) {
-            return new Table(tableName);
+        if (!Files.exists(path)) {
+            return new Table(tableName, layout);
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line);
-            }
-            return deserialize(tableName, content.toString());
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             JsonReader reader = new JsonReader(Channels.newReader(channel, StandardCharsets.UTF_8))) {
+            counters.read(channel.size());
+            return readTable(tableName, reader);
         } catch (IOException e) {
             throw new DatabaseException("Could not load data from file: " + e.getMessage());
         }
@@ -53,30 +102,29 @@ public class JsonStorage {
         StringBuilder json = new StringBuilder();
         json.append("{\n");
         
-        json.append("  \"name\": \"").append(table.getName()).append("\",\n");
-        
-        Set<String> allColumns = new LinkedHashSet<>();
-        
-        boolean hasId = false;
-        for (Row row : table.getRows()) {
-             if (row.getColumns().contains("id")) {
-                 hasId = true;
-                 break;
-             }
-        }
-        
-        if (hasId) {
-            allColumns.add("id");
+        json.append("  \"name\": ");
+        appendString(json, table.getName());
+        json.append(",\n");
+        if (table.getLogSequence() > 0) {
+            json.append("  \"lsn\": ").append(table.getLogSequence()).append(",\n");
         }
 
-        for (Row row : table.getRows()) {
-            allColumns.addAll(row.getColumns());
+        List<String> indexedColumns = indexSpecs(table);
+        if (!indexedColumns.isEmpty()) {
+            json.append("  \"indexes\": [");
+            for (int i = 0; i < indexedColumns.size(); i++) {
+                if (i > 0) json.append(", ");
+                appendString(json, indexedColumns.get(i));
+            }
+            json.append("],\n");
         }
         
+        List<String> allColumns = table.getColumns();
+        
         json.append("  \"columns\": [");
         int c = 0;
         for (String col : allColumns) {
-            json.append("\"").append(col).append("\"");
+            appendString(json, col);
             if (c < allColumns.size() - 1) {
                 json.append(", ");
             }
@@ -87,32 +135,8 @@ public class JsonStorage {
         json.append("  \"rows\": [\n");
         List<Row> rows = table.getRows();
         for (int i = 0; i < rows.size(); i++) {
-            Row row = rows.get(i);
-            json.append("    {");
-            int colIndex = 0;
-            
-            for (String col : allColumns) {
-                Object valObj = row.get(col);
-                
-                json.append("\"").append(col).append("\":");
-
-                if (valObj == null) {
-                    json.append("null");
-                } else if (valObj instanceof Number) {
-                    json.append(valObj);
-                } else {
-                    String val = valObj.toString()
-                            .replace("\"", "\\\"")
-                            .replace("\n", "\\n");
-                    json.append("\"").append(val).append("\"");
-                }
-
-                if (colIndex < allColumns.size() - 1) {
-                    json.append(",");
-                }
-                colIndex++;
-            }
-            json.append("}");
+            json.append("    ");
+            appendRow(json, rows.get(i), allColumns);
             if (i < rows.size() - 1) {
                 json.append(",");
             }
@@ -123,122 +147,205 @@ public class JsonStorage {
         return json.toString();
     }
 
-    private Table deserialize(String tableName, String json) {
-        Table table = new Table(tableName);
-        String content = json.trim();
-        
-        Set<String> columnsOrder = new LinkedHashSet<>();
-        
-        int colIndex = content.indexOf("\"columns\":");
-        if (colIndex != -1) {
-            int startBracket = content.indexOf("[", colIndex);
-            int endBracket = content.indexOf("]", startBracket);
-            if (startBracket != -1 && endBracket != -1) {
-                String colStr = content.substring(startBracket + 1, endBracket);
-                if (!colStr.trim().isEmpty()) {
-                    String[] cols = colStr.split(",");
-                    for (String c : cols) {
-                        String colName = c.trim().replace("\"", "");
-                        if (!colName.isEmpty()) {
-                            columnsOrder.add(colName);
-                        }
-                    }
-                }
+    // Every index except the implicit hash index on id, which each table creates for itself.
+    static List<String> indexSpecs(Table table) {
+        List<String> specs = new ArrayList<>();
+        for (Index index : table.getIndexes()) {
+            if (!index.getColumn().equals("id") || index.getType() != IndexType.HASH) {
+                specs.add(indexSpec(index.getColumn(), index.getType()));
             }
         }
+        return specs;
+    }
+
+    static String indexSpec(String column, IndexType type) {
+        return type == IndexType.HASH ? column : column + ":" + type.name().toLowerCase();
+    }
+
+    static void createIndex(Table table, String spec) {
+        int colon = spec.indexOf(':');
+        if (colon == -1) {
+            table.createIndex(spec, IndexType.HASH);
+        } else {
+            table.createIndex(spec.substring(0, colon), IndexType.valueOf(spec.substring(colon + 1).toUpperCase()));
+        }
+    }
+
+    public String serializeRow(Row row) {
+        StringBuilder json = new StringBuilder();
+        appendRow(json, row, row.getColumns());
+        return json.toString();
+    }
 
-        String rowsContent = "";
+    public Row parseRow(String json) throws IOException {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return readRow(reader, Collections.emptySet());
+        }
+    }
 
-        if (content.startsWith("{")) {
-            int rowsIndex = content.indexOf("\"rows\":");
-            if (rowsIndex != -1) {
-                int startBracket = content.indexOf("[", rowsIndex);
-                int endBracket = content.lastIndexOf("]");
-                if (startBracket != -1 && endBracket != -1) {
-                    rowsContent = content.substring(startBracket + 1, endBracket).trim();
+    // Reads a sequence of top-level row objects, as found in JSON Lines files. Values must be strings, numbers or
+    // null; rows hold no booleans, and true or false would otherwise quietly become text.
+    List<Row> readRows(JsonReader reader) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        while (reader.hasNext()) {
+            Row row = new Row();
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String key = reader.nextName();
+                if (reader.peekBoolean()) {
+                    throw new IOException("Row " + (rows.size() + 1) + " has a boolean in column " + key
+                            + "; only strings, numbers and null can be imported");
                 }
+                row.put(key, reader.nextValue());
             }
+            reader.endObject();
+            rows.add(row);
         }
-        
-        if (rowsContent.isEmpty()) {
-            return table;
-        }
-
-        String[] objects = rowsContent.split("},\\s*\\{");
-
-        if (columnsOrder.isEmpty()) {
-             for (String obj : objects) {
-                obj = obj.replace("{", "").replace("}", "").trim();
-                if (obj.isEmpty()) continue;
-                String[] entryPairs = obj.split(",\\s*\""); 
-                for (int i = 0; i < entryPairs.length; i++) {
-                    String pair = entryPairs[i];
-                    if (i > 0) pair = "\"" + pair;
-                    String[] entry = pair.split("\":");
-                    if (entry.length >= 1) {
-                         String key = entry[0].replace("\"", "").trim();
-                         columnsOrder.add(key);
+        return rows;
+    }
+
+    private void appendRow(StringBuilder json, Row row, Collection<String> columns) {
+        json.append("{");
+        int colIndex = 0;
+
+        for (String col : columns) {
+            Object valObj = row.get(col);
+
+            appendString(json, col);
+            json.append(":");
+
+            if (valObj == null) {
+                json.append("null");
+            } else if (valObj instanceof Number) {
+                json.append(valObj);
+            } else {
+                appendString(json, valObj.toString());
+            }
+
+            if (colIndex < columns.size() - 1) {
+                json.append(",");
+            }
+            colIndex++;
+        }
+        json.append("}");
+    }
+
+    private void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
                     }
+            }
+        }
+        json.append('"');
+    }
+
+    private Table readTable(String tableName, JsonReader reader) throws IOException {
+        Table table = new Table(tableName, layout);
+        Set<String> columnsOrder = new LinkedHashSet<>();
+        List<Row> headerlessRows = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            switch (key) {
+                case "lsn": {
+                    long lsn = reader.nextLong();
+                    table.setLogSequence(lsn);
+                    table.setSnapshotSequence(lsn);
+                    break;
                 }
-             }
+                case "indexes":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        createIndex(table, reader.nextString());
+                    }
+                    reader.endArray();
+                    break;
+                case "columns":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        columnsOrder.add(reader.nextString());
+                    }
+                    reader.endArray();
+                    if (columnsOrder.contains("id")) {
+                        Set<String> reordered = new LinkedHashSet<>();
+                        reordered.add("id");
+                        reordered.addAll(columnsOrder);
+                        columnsOrder = reordered;
+                    }
+                    break;
+                case "rows":
+                    reader.beginArray();
+                    if (columnsOrder.isEmpty()) {
+                        headerlessRows = new ArrayList<>();
+                        while (reader.hasNext()) {
+                            headerlessRows.add(readRow(reader, Collections.emptySet()));
+                        }
+                    } else {
+                        while (reader.hasNext()) {
+                            table.insert(readRow(reader, columnsOrder));
+                        }
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (headerlessRows != null) {
+            insertHeaderless(table, headerlessRows);
+        }
+        return table;
+    }
+
+    private void insertHeaderless(Table table, List<Row> rows) {
+        Set<String> columnsOrder = new LinkedHashSet<>();
+        for (Row row : rows) {
+            columnsOrder.addAll(row.getColumns());
         }
-        
         if (columnsOrder.contains("id")) {
+            columnsOrder.remove("id");
             Set<String> reordered = new LinkedHashSet<>();
             reordered.add("id");
             reordered.addAll(columnsOrder);
             columnsOrder = reordered;
         }
 
-        for (String obj : objects) {
-            obj = obj.replace("{", "").replace("}", "").trim();
-            if (obj.isEmpty()) continue;
-
+        for (Row parsed : rows) {
             Row row = new Row();
-            
             for (String col : columnsOrder) {
-                row.put(col, null);
-            }
-            
-            String[] entryPairs = obj.split(",\\s*\""); 
-            
-            for (int i = 0; i < entryPairs.length; i++) {
-                String pair = entryPairs[i];
-                if (i > 0) pair = "\"" + pair;
-
-                String[] entry = pair.split("\":");
-                if (entry.length >= 2) {
-                    String key = entry[0].replace("\"", "").trim();
-                    
-                    StringBuilder valueBuilder = new StringBuilder();
-                    for(int k=1; k<entry.length; k++) {
-                        if(k > 1) valueBuilder.append("\":");
-                        valueBuilder.append(entry[k]);
-                    }
-                    
-                    String rawValue = valueBuilder.toString().trim();
-                    Object finalValue;
-
-                    if (rawValue.startsWith("\"") && rawValue.endsWith("\"")) {
-                        String valStr = rawValue.substring(1, rawValue.length() - 1);
-                        finalValue = valStr.replace("\\\"", "\"").replace("\\n", "\n");
-                    } else if ("null".equals(rawValue)) {
-                        finalValue = null;
-                    } else if (NUMBER_PATTERN.matcher(rawValue).matches()) {
-                        try {
-                            finalValue = Double.parseDouble(rawValue);
-                        } catch (NumberFormatException e) {
-                            finalValue = rawValue;
-                        }
-                    } else {
-                        finalValue = rawValue;
-                    }
-
-                    row.put(key, finalValue);
-                }
+                row.put(col, parsed.get(col));
             }
             table.insert(row);
         }
-        return table;
+    }
+
+    private Row readRow(JsonReader reader, Set<String> columnsOrder) throws IOException {
+        Row row = new Row();
+        for (String col : columnsOrder) {
+            row.put(col, null);
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            row.put(key, reader.nextValue());
+        }
+        reader.endObject();
+        return row;
     }
 }
\ No newline at end of file
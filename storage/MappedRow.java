@@ -0,0 +1,63 @@
+package storage;
+
+import model.Row;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// A row backed by a mapped page: values are decoded on access, and updates go to an overlay instead of the file.
+class MappedRow extends Row {
+    private final BinaryPage page;
+    private final int slot;
+    private Map<String, Object> overlay;
+    private boolean extended;
+
+    MappedRow(BinaryPage page, int slot) {
+        super((Void) null);
+        this.page = page;
+        this.slot = slot;
+    }
+
+    @Override
+    public void put(String column, Object value) {
+        if (overlay == null) {
+            overlay = new LinkedHashMap<>();
+        }
+        overlay.put(column, value);
+        extended |= !page.hasColumn(column);
+    }
+
+    @Override
+    public Object get(String column) {
+        if (overlay != null && overlay.containsKey(column)) {
+            return overlay.get(column);
+        }
+        return page.get(column, slot);
+    }
+
+    @Override
+    public Set<String> getColumns() {
+        if (!extended) {
+            return page.getColumnNames();
+        }
+        Set<String> columns = new LinkedHashSet<>(page.getColumnNames());
+        columns.addAll(overlay.keySet());
+        return columns;
+    }
+
+    @Override
+    public Map<String, Object> getData() {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (String column : getColumns()) {
+            data.put(column, get(column));
+        }
+        return data;
+    }
+
+    @Override
+    public String toString() {
+        return getData().toString();
+    }
+}
\ No newline at end of file
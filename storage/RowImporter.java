@@ -0,0 +1,111 @@
+package storage;
+
+import exception.DatabaseException;
+import model.Row;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RowImporter {
+    private final JsonStorage codec;
+    private final Path directory;
+
+    public RowImporter(JsonStorage codec, Path directory) {
+        this.codec = codec;
+        this.directory = directory;
+    }
+
+    public List<Row> read(String fileName) throws DatabaseException {
+        String lower = fileName.toLowerCase();
+        if (!lower.endsWith(".csv") && !lower.endsWith(".jsonl") && !lower.endsWith(".ndjson")) {
+            throw new DatabaseException("Could not import rows: unsupported file type " + fileName + " (expected .csv or .jsonl)");
+        }
+        Path path = resolve(fileName);
+        if (!Files.isRegularFile(path)) {
+            throw new DatabaseException("Could not import rows: file not found: " + fileName);
+        }
+
+        try {
+            if (!path.toRealPath().startsWith(directory.toRealPath())) {
+                throw new DatabaseException("Could not import rows: " + fileName + " is outside the import directory");
+            }
+            if (lower.endsWith(".csv")) {
+                return readCsv(path);
+            }
+            return readJsonLines(path);
+        } catch (IOException e) {
+            throw new DatabaseException("Could not import rows from " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    // COPY reaches the server's clients too, so names stay inside the import directory: no absolute paths, no
+    // "..", and no links pointing out of it (checked once the file is known to exist).
+    private Path resolve(String fileName) throws DatabaseException {
+        Path relative;
+        try {
+            relative = Paths.get(fileName);
+        } catch (InvalidPathException e) {
+            throw new DatabaseException("Could not import rows: invalid file name " + fileName);
+        }
+        if (relative.isAbsolute() || relative.getRoot() != null) {
+            throw new DatabaseException("Could not import rows: " + fileName + " is outside the import directory");
+        }
+        for (Path part : relative) {
+            if (part.toString().equals("..")) {
+                throw new DatabaseException("Could not import rows: " + fileName + " is outside the import directory");
+            }
+        }
+        return directory.resolve(relative);
+    }
+
+    private List<Row> readCsv(Path path) throws IOException {
+        List<Row> rows = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             CsvReader reader = new CsvReader(Channels.newReader(channel, StandardCharsets.UTF_8))) {
+            List<Object> header = reader.nextRecord();
+            if (header == null) {
+                return rows;
+            }
+            String[] columns = new String[header.size()];
+            for (int i = 0; i < columns.length; i++) {
+                if (header.get(i) == null) {
+                    throw new IOException("Empty column name in header");
+                }
+                columns[i] = header.get(i).toString();
+            }
+
+            List<Object> record;
+            while ((record = reader.nextRecord()) != null) {
+                if (record.size() != columns.length) {
+                    throw new IOException("Row " + (rows.size() + 1) + " has " + record.size()
+                            + " fields but the header has " + columns.length);
+                }
+                Row row = new Row();
+                for (int i = 0; i < columns.length; i++) {
+                    Object value = record.get(i);
+                    if (value != null) {
+                        row.put(columns[i], value);
+                    }
+                }
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private List<Row> readJsonLines(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+             JsonReader reader = new JsonReader(Channels.newReader(channel, StandardCharsets.UTF_8))) {
+            return codec.readRows(reader);
+        }
+    }
+}
\ No newline at end of file
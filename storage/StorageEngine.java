@@ -0,0 +1,17 @@
+package storage;
+
+import exception.DatabaseException;
+import model.Table;
+
+public interface StorageEngine {
+    // Returns an empty table when nothing has been stored under the name yet.
+    Table loadTable(String tableName) throws DatabaseException;
+
+    // Replaces the table's file atomically: a crash leaves either the old file or the new one. With sync, the new
+    // file is on disk before saveTable returns; without, the OS writes it back in its own time.
+    void saveTable(Table table, boolean sync) throws DatabaseException;
+
+    default void saveTable(Table table) throws DatabaseException {
+        saveTable(table, true);
+    }
+}
\ No newline at end of file
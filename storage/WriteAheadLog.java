@@ -0,0 +1,346 @@
+package storage;
+
+import exception.DatabaseException;
+import index.IndexType;
+import model.Row;
+import model.Table;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class WriteAheadLog {
+    private static final String FILE_EXTENSION = ".log";
+    private static final String INSERT = "I";
+    private static final String UPDATE = "U";
+    private static final String DELETE = "D";
+    private static final String TRUNCATE = "T";
+    private static final String CREATE_INDEX = "X";
+
+    public static class Record {
+        private final Table table;
+        private final String type;
+        private final String payload;
+
+        private Record(Table table, String type, String payload) {
+            this.table = table;
+            this.type = type;
+            this.payload = payload;
+        }
+
+        public Table getTable() {
+            return table;
+        }
+    }
+
+    private final JsonStorage codec;
+    private final boolean forceOnSync;
+    private final Map<String, Writer> writers = new HashMap<>();
+    private final Map<String, FileOutputStream> streams = new HashMap<>();
+    private final Set<Writer> unsynced = new HashSet<>();
+    // Files handed to the OS but not yet forced to disk.
+    private final Set<FileOutputStream> unforced = new HashSet<>();
+    // Explicit locks rather than monitors, so sessions on virtual threads do not pin their carrier while waiting.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final Condition syncDone = syncLock.newCondition();
+    private long appendedBatches = 0;
+    private long syncedBatches = 0;
+    private boolean syncing = false;
+
+    // With forceOnSync, sync() also forces the files to disk; otherwise that waits for force() or the OS.
+    public WriteAheadLog(JsonStorage codec, boolean forceOnSync) {
+        this.codec = codec;
+        this.forceOnSync = forceOnSync;
+    }
+
+    public Record insertRecord(Table table, Row row) {
+        return new Record(table, INSERT, codec.serializeRow(row));
+    }
+
+    public Record updateRecord(Table table, List<Row> rows, Map<String, Object> values) {
+        return new Record(table, UPDATE, joinSequences(rows) + " " + codec.serializeRow(new Row(values)));
+    }
+
+    public Record deleteRecord(Table table, List<Row> rows) {
+        return new Record(table, DELETE, joinSequences(rows));
+    }
+
+    public Record truncateRecord(Table table) {
+        return new Record(table, TRUNCATE, "");
+    }
+
+    public Record createIndexRecord(Table table, String column, IndexType type) {
+        return new Record(table, CREATE_INDEX, JsonStorage.indexSpec(column, type));
+    }
+
+    // Assigns log sequence numbers and buffers the records; sync() hands them to the OS, and makes them durable
+    // when the log forces on sync.
+    public void append(List<Record> records) throws DatabaseException {
+        writeLock.lock();
+        try {
+            for (Record record : records) {
+                Writer writer = writerFor(record.table);
+                long lsn = record.table.getLogSequence() + 1;
+                writer.write(lsn + " " + record.type + " " + record.payload + "\n");
+                record.table.setLogSequence(lsn);
+                unsynced.add(writer);
+                unforced.add(streams.get(record.table.getName()));
+            }
+            appendedBatches++;
+        } catch (IOException e) {
+            throw new DatabaseException("Could not append to log: " + e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void sync() throws DatabaseException {
+        long target;
+        writeLock.lock();
+        try {
+            target = appendedBatches;
+        } finally {
+            writeLock.unlock();
+        }
+        syncLock.lock();
+        try {
+            while (syncedBatches < target && syncing) {
+                try {
+                    syncDone.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new DatabaseException("Interrupted while waiting for log sync");
+                }
+            }
+            if (syncedBatches >= target) {
+                return;
+            }
+            syncing = true;
+        } finally {
+            syncLock.unlock();
+        }
+
+        long flushed;
+        IOException failure = null;
+        writeLock.lock();
+        try {
+            flushed = appendedBatches;
+            for (Writer writer : unsynced) {
+                try {
+                    writer.flush();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            if (failure == null) {
+                unsynced.clear();
+                if (forceOnSync) {
+                    failure = forceAll();
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+
+        syncLock.lock();
+        try {
+            syncing = false;
+            if (failure == null) {
+                syncedBatches = Math.max(syncedBatches, flushed);
+            }
+            syncDone.signalAll();
+        } finally {
+            syncLock.unlock();
+        }
+        if (failure != null) {
+            throw new DatabaseException("Could not sync log: " + failure.getMessage());
+        }
+    }
+
+    // Forces everything already handed to the OS onto the disk.
+    public void force() throws DatabaseException {
+        IOException failure;
+        writeLock.lock();
+        try {
+            failure = forceAll();
+        } finally {
+            writeLock.unlock();
+        }
+        if (failure != null) {
+            throw new DatabaseException("Could not sync log: " + failure.getMessage());
+        }
+    }
+
+    private IOException forceAll() {
+        IOException failure = null;
+        for (FileOutputStream stream : unforced) {
+            try {
+                stream.getFD().sync();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure == null) {
+            unforced.clear();
+        }
+        return failure;
+    }
+
+    public void replay(Table table) throws DatabaseException {
+        File file = new File(table.getName() + FILE_EXTENSION);
+        if (!file.exists()) {
+            return;
+        }
+
+        codec.getIoCounters().read(file.length());
+        try (BufferedReader reader = new BufferedReader(new FileReader(file, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                if (!applyRecord(table, line)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            throw new DatabaseException("Could not replay log: " + e.getMessage());
+        }
+    }
+
+    public void truncate(Table table) throws DatabaseException {
+        writeLock.lock();
+        try {
+            closeWriter(table.getName());
+            File file = new File(table.getName() + FILE_EXTENSION);
+            if (file.exists() && !file.delete()) {
+                throw new DatabaseException("Could not truncate log: " + file.getName());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void close() throws DatabaseException {
+        writeLock.lock();
+        try {
+            for (String tableName : new ArrayList<>(writers.keySet())) {
+                closeWriter(tableName);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private Writer writerFor(Table table) throws IOException {
+        Writer writer = writers.get(table.getName());
+        if (writer == null) {
+            FileOutputStream out = new FileOutputStream(table.getName() + FILE_EXTENSION, true);
+            writer = new BufferedWriter(new OutputStreamWriter(new CountingOutputStream(out, codec.getIoCounters()), StandardCharsets.UTF_8));
+            writers.put(table.getName(), writer);
+            streams.put(table.getName(), out);
+        }
+        return writer;
+    }
+
+    private boolean applyRecord(Table table, String line) {
+        String[] parts = line.split(" ", 3);
+        if (parts.length < 2) {
+            return false;
+        }
+
+        long lsn;
+        try {
+            lsn = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (lsn <= table.getLogSequence()) {
+            return true;
+        }
+
+        String payload = parts.length > 2 ? parts[2] : "";
+        try {
+            switch (parts[1]) {
+                case INSERT:
+                    table.insert(codec.parseRow(payload));
+                    break;
+                case UPDATE: {
+                    int split = payload.indexOf(' ');
+                    Row values = codec.parseRow(payload.substring(split + 1));
+                    for (Row row : findRows(table, payload.substring(0, split))) {
+                        for (String column : values.getColumns()) {
+                            table.update(row, column, values.get(column));
+                        }
+                    }
+                    break;
+                }
+                case DELETE:
+                    table.deleteRows(findRows(table, payload));
+                    break;
+                case TRUNCATE:
+                    table.setRows(new ArrayList<>());
+                    break;
+                case CREATE_INDEX:
+                    JsonStorage.createIndex(table, payload);
+                    break;
+                default:
+                    return false;
+            }
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+
+        table.setLogSequence(lsn);
+        return true;
+    }
+
+    private void closeWriter(String tableName) throws DatabaseException {
+        Writer writer = writers.remove(tableName);
+        if (writer == null) {
+            return;
+        }
+        unsynced.remove(writer);
+        unforced.remove(streams.remove(tableName));
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new DatabaseException("Could not close log: " + e.getMessage());
+        }
+    }
+
+    private String joinSequences(List<Row> rows) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) sb.append(",");
+            sb.append(rows.get(i).getSequence());
+        }
+        return sb.toString();
+    }
+
+    private List<Row> findRows(Table table, String sequences) {
+        String[] parts = sequences.split(",");
+        List<Row> rows = new ArrayList<>(parts.length);
+        for (String part : parts) {
+            Row row = table.findBySequence(Long.parseLong(part));
+            if (row == null) {
+                throw new IllegalStateException("Unknown row sequence " + part);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
\ No newline at end of file
@@ -3,6 +3,7 @@ package ui;
 import command.Command;
 import engine.DatabaseEngine;
 import engine.Result;
+import engine.Session;
 import exception.DatabaseException;
 import model.Row;
 import parser.SqlParser;
@@ -10,20 +11,19 @@ import parser.SqlParser;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.List;
 
 public class CommandLineInterface {
-    private final DatabaseEngine engine;
+    private final Session session;
     private final SqlParser parser;
 
     public CommandLineInterface(DatabaseEngine engine) {
-        this.engine = engine;
+        this.session = new Session(engine);
         this.parser = new SqlParser();
     }
 
     public void start() {
         System.out.println("Simple Database Editor");
-        System.out.println("Supported: SELECT, INSERT, UPDATE, DELETE, EXIT");
+        System.out.println("Supported: SELECT, INSERT, UPDATE, DELETE, COPY, CREATE INDEX, ANALYZE, EXPLAIN, SHOW STATS, BEGIN, COMMIT, ROLLBACK, EXIT");
 
         BufferedReader reader = new BufferedReader(new InputStreamReader(System.in));
         boolean running = true;
@@ -37,7 +37,7 @@ public class CommandLineInterface {
                 if (input.trim().isEmpty()) continue;
 
                 Command command = parser.parse(input);
-                Result result = command.execute(engine);
+                Result result = session.execute(command);
                 
                 printResult(result);
 
@@ -55,15 +55,24 @@ public class CommandLineInterface {
                 e.printStackTrace();
             }
         }
+
+        try {
+            session.close();
+        } catch (DatabaseException e) {
+            System.out.println("ERROR: " + e.getMessage());
+        }
     }
 
+    // Rows are printed as the cursor produces them, so large results never sit in memory all at once.
     private void printResult(Result result) {
         if (result.hasData()) {
-            List<Row> rows = result.getRows();
-            if (rows.isEmpty()) {
-                System.out.println("Empty set");
-            } else {
-                for (Row row : rows) {
+            try (Result cursor = result) {
+                Row row = cursor.next();
+                if (row == null) {
+                    System.out.println("Empty set");
+                    return;
+                }
+                for (; row != null; row = cursor.next()) {
                     System.out.println(row);
                 }
                 System.out.println(result.getMessage());